@@ -0,0 +1,34 @@
+package com.pokemon.bench;
+
+import java.util.List;
+
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeSpecieModel;
+
+/**
+ * Modelos armados con datos fijos para los benchmarks que no parsean respuestas de la api.
+ */
+final class BenchData {
+
+    private BenchData() {
+    }
+
+    static PokeCacheModel pokemon(int id) {
+        return PokeCacheModel.builder()
+                .id(id)
+                .name("pokemon-" + id)
+                .imageList("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/" + id + ".png")
+                .imageDetail("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/dream-world/"
+                        + id + ".svg")
+                .typeList(List.of("Planta", "Veneno"))
+                .abilitiesList(List.of("Potencia los ataques de tipo Planta en un apuro.",
+                        "Sube la Velocidad cuando hace sol."))
+                .species(PokeSpecieModel.builder()
+                        .evolutionChainUrl("https://pokeapi.co/api/v2/evolution-chain/1/")
+                        .flavorText("Una rara semilla le fue plantada en el lomo al nacer.")
+                        .build())
+                .weight(6.9)
+                .height(0.7)
+                .build();
+    }
+}
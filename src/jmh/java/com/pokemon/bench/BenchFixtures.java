@@ -0,0 +1,43 @@
+package com.pokemon.bench;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Respuestas de la api de pokemon usadas por los benchmarks (src/jmh/resources/fixtures).
+ *
+ * <p>Son sinteticas: no se grabaron de la api sino que se generaron con la estructura de sus
+ * respuestas (mismos campos y anidamiento) y textos de relleno, para que los resultados sean
+ * comparables entre commits. El tamaño se fijo por cantidad de elementos:
+ * <ul>
+ * <li>pokemon-25.json (~325 KB): 105 moves con 12 o 13 version_group_details cada uno, que son
+ * casi todo el documento, mas 19 game_indices, 10 sprites y los campos que lee el servicio</li>
+ * <li>ability-9.json (~45 KB): 150 flavor_text_entries repartidas en 10 idiomas, 40 pokemon y
+ * 10 names</li>
+ * </ul>
+ * Las respuestas reales cambian de tamaño con cada version de la api; para medir contra ellas se
+ * pueden reemplazar los archivos por las respuestas grabadas de /pokemon/25 y /ability/9 sin
+ * cambiar los benchmarks.
+ */
+final class BenchFixtures {
+
+    /** GET /pokemon/25 */
+    static final String POKEMON = "pokemon-25.json";
+    /** GET /ability/9 */
+    static final String ABILITY = "ability-9.json";
+
+    private BenchFixtures() {
+    }
+
+    static byte[] read(String name) {
+        try (InputStream in = BenchFixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("No se encontro el fixture " + name);
+            }
+            return in.readAllBytes();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.pokemon.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.pokemon.cache.CacheCodec;
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeTranslationModel;
+import com.pokemon.util.PokeJsonExtractor;
+
+/**
+ * Formatos de los valores guardados en Redis: JSON con nombres de clase (formato anterior), Smile
+ * y Smile comprimido. Mide el tiempo de codificacion y decodificacion por entrada; al iniciar cada
+ * corrida se comprueba que cada formato devuelva el mismo valor que se guardo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheCodecBenchmark {
+
+    @Param({ "JSON", "SMILE", "SMILE_DEFLATE" })
+    public String codec;
+
+    private CacheCodec<PokeCoreModel> coreCodec;
+    private CacheCodec<PokeTranslationModel> translationCodec;
+    private CacheEntry<PokeCoreModel> core;
+    private CacheEntry<PokeTranslationModel> translations;
+    private byte[] coreBytes;
+    private byte[] translationBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        CacheCodec.Format format = "JSON".equals(codec) ? CacheCodec.Format.JSON : CacheCodec.Format.SMILE;
+        int threshold = "SMILE_DEFLATE".equals(codec) ? 0 : -1;
+        coreCodec = new CacheCodec<>(PokeCoreModel.class, format, threshold);
+        translationCodec = new CacheCodec<>(PokeTranslationModel.class, format, threshold);
+
+        core = new CacheEntry<>(PokeCoreModel.builder()
+                .id(25)
+                .name("pikachu")
+                .imageList("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/25.png")
+                .imageDetail("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/dream-world/25.svg")
+                .weight(6.0)
+                .height(0.4)
+                .typeUrls(List.of("https://pokeapi.co/api/v2/type/13/"))
+                .abilityUrls(List.of("https://pokeapi.co/api/v2/ability/9/", "https://pokeapi.co/api/v2/ability/31/"))
+                .speciesUrl("https://pokeapi.co/api/v2/pokemon-species/25/")
+                .evolutionChainUrl("https://pokeapi.co/api/v2/evolution-chain/10/")
+                .build(), System.currentTimeMillis());
+        translations = new CacheEntry<>(PokeTranslationModel.builder()
+                .texts(PokeJsonExtractor.extractTranslations(
+                        new ByteArrayInputStream(BenchFixtures.read(BenchFixtures.ABILITY)), "flavor_text_entries",
+                        "flavor_text"))
+                .build(), System.currentTimeMillis());
+        coreBytes = coreCodec.encode(core);
+        translationBytes = translationCodec.encode(translations);
+        if (!core.value().equals(coreCodec.decode(coreBytes).value())
+                || !translations.value().equals(translationCodec.decode(translationBytes).value())) {
+            throw new IllegalStateException("El formato " + codec + " no devuelve el valor guardado");
+        }
+    }
+
+    @Benchmark
+    public CacheEntry<PokeCoreModel> decodePokemon() {
+        return coreCodec.decode(coreBytes);
+    }
+
+    @Benchmark
+    public CacheEntry<PokeTranslationModel> decodeTranslations() {
+        return translationCodec.decode(translationBytes);
+    }
+
+    @Benchmark
+    public byte[] encodePokemon() {
+        return coreCodec.encode(core);
+    }
+}
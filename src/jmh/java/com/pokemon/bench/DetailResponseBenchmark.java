@@ -0,0 +1,101 @@
+package com.pokemon.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.cache.CacheCodec;
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.cache.NearCache;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeDetailBody;
+import com.pokemon.model.PokeDetailModel;
+import com.pokemon.model.PokeMapper;
+import com.pokemon.util.PokeETags;
+
+/**
+ * Respuesta de /pokemon/{id} con el pokemon ya cacheado: el camino actual decodifica el pokemon
+ * guardado en Redis, arma el detalle con su cadena evolutiva y lo serializa con Jackson; con
+ * pokeapi.cache.detail-bodies.enabled se toma el JSON ya serializado de la cache local y se
+ * envuelve en el buffer de la respuesta sin copiarlo. La memoria asignada por operacion la
+ * informa el profiler gc (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DetailResponseBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DefaultDataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+    private CacheCodec<PokeCoreModel> coreCodec;
+    private byte[] coreBytes;
+    private List<List<PokeBasicModel>> evolutionList;
+    private NearCache<CacheEntry<PokeDetailBody>> detailBodies;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        coreCodec = new CacheCodec<>(PokeCoreModel.class, CacheCodec.Format.SMILE, 512);
+        coreBytes = coreCodec.encode(new CacheEntry<>(PokeCoreModel.builder()
+                .id(1)
+                .name("pokemon-1")
+                .imageList("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/1.png")
+                .imageDetail("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/dream-world/1.svg")
+                .weight(6.9)
+                .height(0.7)
+                .typeUrls(List.of("https://pokeapi.co/api/v2/type/12/", "https://pokeapi.co/api/v2/type/4/"))
+                .abilityUrls(List.of("https://pokeapi.co/api/v2/ability/65/", "https://pokeapi.co/api/v2/ability/34/"))
+                .speciesUrl("https://pokeapi.co/api/v2/pokemon-species/1/")
+                .evolutionChainUrl("https://pokeapi.co/api/v2/evolution-chain/1/")
+                .build(), System.currentTimeMillis()));
+        evolutionList = List.of(
+                List.of(PokeMapper.INSTANCE.toBasic(BenchData.pokemon(1))),
+                List.of(PokeMapper.INSTANCE.toBasic(BenchData.pokemon(2))),
+                List.of(PokeMapper.INSTANCE.toBasic(BenchData.pokemon(3))));
+
+        PokeDetailModel detail = detail(BenchData.pokemon(1).getId());
+        detailBodies = new NearCache<>(2000, null);
+        detailBodies.put("1:es", new CacheEntry<>(
+                new PokeDetailBody(objectMapper.writeValueAsBytes(detail), PokeETags.of(detail), false),
+                System.currentTimeMillis()));
+        // los dos caminos tienen que responder el mismo JSON para que la comparacion valga
+        byte[] assembled = objectMapper.writeValueAsBytes(detail(coreCodec.decode(coreBytes).value().getId()));
+        if (!Arrays.equals(assembled, detailBodies.get("1:es").value().body())) {
+            throw new IllegalStateException("El detalle armado no coincide con el pre-serializado");
+        }
+    }
+
+    @Benchmark
+    public DataBuffer assembleAndSerialize() throws JsonProcessingException {
+        PokeCoreModel core = coreCodec.decode(coreBytes).value();
+        PokeDetailModel detail = detail(core.getId());
+        PokeETags.of(detail);
+        return bufferFactory.wrap(objectMapper.writeValueAsBytes(detail));
+    }
+
+    @Benchmark
+    public DataBuffer preSerialized() {
+        PokeDetailBody body = detailBodies.get("1:es").value();
+        return bufferFactory.wrap(body.body());
+    }
+
+    // los textos localizados salen de las tablas de traducciones, aca se arman con datos fijos
+    private PokeDetailModel detail(int id) {
+        return PokeDetailModel.builder()
+                .data(BenchData.pokemon(id))
+                .evolutionList(evolutionList)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.pokemon.bench;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeMapper;
+import com.pokemon.util.PokeUtils;
+
+/**
+ * Utilidades usadas en cada pedido: copia al modelo basico de la lista, lectura de valores
+ * anidados en los Map de la api y obtencion del id desde una url.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    private PokeCacheModel pokemon;
+    private Map<String, Object> pokemonMap;
+    private final String url = "https://pokeapi.co/api/v2/pokemon-species/25/";
+
+    @Setup
+    public void setUp() throws IOException {
+        pokemon = BenchData.pokemon(25);
+        pokemonMap = new ObjectMapper().readValue(BenchFixtures.read(BenchFixtures.POKEMON), Map.class);
+    }
+
+    @Benchmark
+    public PokeBasicModel toBasic() {
+        return PokeMapper.INSTANCE.toBasic(pokemon);
+    }
+
+    @Benchmark
+    public String getStringFromNestedMap() {
+        return PokeUtils.getStringFromNestedMap(pokemonMap, "sprites.other.dream_world.front_default");
+    }
+
+    @Benchmark
+    public Integer getIdFromUrl() {
+        return PokeUtils.getIdFromUrl(url);
+    }
+}
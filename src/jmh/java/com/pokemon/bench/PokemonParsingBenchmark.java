@@ -0,0 +1,85 @@
+package com.pokemon.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeSpecieModel;
+import com.pokemon.util.PokeJsonExtractor;
+
+/**
+ * Armado de un {@link PokeCacheModel} desde la respuesta de /pokemon/{id}: deserializando el
+ * documento completo a un Map (como se hacia originalmente) contra la extraccion token a token
+ * de {@link PokeJsonExtractor}. Los textos traducidos se completan con valores fijos para medir
+ * solo el parseo. La respuesta es sintetica, ver {@link BenchFixtures}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PokemonParsingBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] pokemonJson;
+
+    @Setup
+    public void setUp() {
+        pokemonJson = BenchFixtures.read(BenchFixtures.POKEMON);
+    }
+
+    @Benchmark
+    public PokeCacheModel mapDeserialization() throws IOException {
+        Map<String, Object> response = objectMapper.readValue(pokemonJson, Map.class);
+        Integer weight = (Integer) response.get("weight");
+        Integer height = (Integer) response.get("height");
+        Map<String, Object> sprites = (Map<String, Object>) response.get("sprites");
+        Map<String, Object> other = (Map<String, Object>) sprites.get("other");
+        Map<String, Object> dreamWorld = (Map<String, Object>) other.get("dream_world");
+        List<Map<String, Object>> types = (List<Map<String, Object>>) response.get("types");
+        List<Map<String, Object>> abilities = (List<Map<String, Object>>) response.get("abilities");
+        Map<String, Object> species = (Map<String, Object>) response.get("species");
+        return PokeCacheModel.builder()
+                .id(25)
+                .name((String) response.get("name"))
+                .imageList((String) sprites.get("front_default"))
+                .imageDetail((String) dreamWorld.get("front_default"))
+                .typeList(types.stream()
+                        .map(type -> (String) ((Map<String, Object>) type.get("type")).get("url"))
+                        .toList())
+                .abilitiesList(abilities.stream()
+                        .map(ability -> (String) ((Map<String, Object>) ability.get("ability")).get("url"))
+                        .toList())
+                .species(PokeSpecieModel.builder().evolutionChainUrl((String) species.get("url")).build())
+                .weight(weight / 10.0)
+                .height(height / 10.0)
+                .build();
+    }
+
+    @Benchmark
+    public PokeCacheModel tokenExtraction() throws IOException {
+        PokeJsonExtractor.PokemonPayload response = PokeJsonExtractor
+                .extractPokemon(new ByteArrayInputStream(pokemonJson));
+        return PokeCacheModel.builder()
+                .id(25)
+                .name(response.name())
+                .imageList(response.imageList())
+                .imageDetail(response.imageDetail())
+                .typeList(response.typeUrls())
+                .abilitiesList(response.abilityUrls())
+                .species(PokeSpecieModel.builder().evolutionChainUrl(response.speciesUrl()).build())
+                .weight(response.weight() / 10.0)
+                .height(response.height() / 10.0)
+                .build();
+    }
+}
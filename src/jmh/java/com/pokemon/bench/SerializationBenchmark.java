@@ -0,0 +1,48 @@
+package com.pokemon.bench;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.model.PokeListModel;
+import com.pokemon.model.PokeMapper;
+
+/**
+ * Serializacion con Jackson de una pagina completa de la lista, como la escribe el controller.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerializationBenchmark {
+
+    @Param({ "5", "20" })
+    public int pageSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PokeListModel page;
+
+    @Setup
+    public void setUp() {
+        page = PokeListModel.builder()
+                .recordCount(1302)
+                .list(IntStream.rangeClosed(1, pageSize)
+                        .mapToObj(id -> PokeMapper.INSTANCE.toBasic(BenchData.pokemon(id)))
+                        .toList())
+                .build();
+    }
+
+    @Benchmark
+    public byte[] serializeListPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,76 @@
+package com.pokemon.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.util.PokeJsonExtractor;
+
+/**
+ * Busqueda del texto de una habilidad en un idioma sobre flavor_text_entries: filtrando la
+ * coleccion ya deserializada a Map (como traduceItemAsync originalmente) contra armar la tabla
+ * de todos los idiomas leyendo el JSON token a token. Usa la respuesta sintetica de /ability/9
+ * descripta en {@link BenchFixtures}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TranslationBenchmark {
+
+    @Param({ "es", "en" })
+    public String language;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] abilityJson;
+    private Map<String, Object> abilityMap;
+
+    @Setup
+    public void setUp() throws IOException {
+        abilityJson = BenchFixtures.read(BenchFixtures.ABILITY);
+        abilityMap = objectMapper.readValue(abilityJson, Map.class);
+    }
+
+    /** solo el filtrado por idioma, con el documento ya deserializado */
+    @Benchmark
+    public String filterDeserializedEntries() {
+        return firstText(abilityMap);
+    }
+
+    /** deserializacion completa a Map mas el filtrado por idioma */
+    @Benchmark
+    public String deserializeAndFilter() throws IOException {
+        return firstText(objectMapper.readValue(abilityJson, Map.class));
+    }
+
+    /** tabla de textos de todos los idiomas leyendo el JSON token a token */
+    @Benchmark
+    public String extractTranslationTable() throws IOException {
+        return PokeJsonExtractor.extractTranslations(new ByteArrayInputStream(abilityJson), "flavor_text_entries",
+                "flavor_text").get(language);
+    }
+
+    private String firstText(Map<String, Object> response) {
+        List<Map<String, Object>> collectionList = (List<Map<String, Object>>) response.get("flavor_text_entries");
+        return collectionList.stream()
+                .filter(entry -> {
+                    Map<String, Object> languageMap = (Map<String, Object>) entry.get("language");
+                    return languageMap != null && language.equals(languageMap.get("name"));
+                })
+                .map(entry -> (String) entry.get("flavor_text"))
+                .filter(val -> val != null && !val.isEmpty())
+                .findFirst()
+                .orElse("Desconocido");
+    }
+}
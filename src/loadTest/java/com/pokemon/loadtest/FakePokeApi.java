@@ -0,0 +1,203 @@
+package com.pokemon.loadtest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.pokemon.controller.PokeController;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+/**
+ * Reemplazo local de la api de pokemon para las pruebas de carga. Responde la lista, los
+ * pokemones, tipos, habilidades, especies y cadenas evolutivas con la misma forma que la api
+ * real, armados a partir del id para que sean siempre iguales. Cada respuesta se demora la
+ * latencia configurada (mas una variacion aleatoria) y una fraccion de los pedidos falla con 503.
+ */
+public class FakePokeApi extends Dispatcher implements AutoCloseable {
+
+    private static final int TYPE_COUNT = 18;
+    private static final int ABILITY_COUNT = 300;
+    // tamaño de cada cadena evolutiva: los pokemones 1-3 comparten cadena, 4-6, etc.
+    private static final int CHAIN_SIZE = 3;
+    // movimientos agregados a cada pokemon para acercar el tamaño de la respuesta al de la api real
+    private static final int MOVE_COUNT = 80;
+
+    private final MockWebServer server = new MockWebServer();
+    private final int pokemonCount;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double errorRate;
+    private final Random random;
+    private final Map<String, AtomicLong> requestCount = new ConcurrentHashMap<>();
+    private String baseUrl;
+
+    /**
+     * @param pokemonCount cantidad de pokemones de la lista
+     * @param latencyMs    demora minima de cada respuesta
+     * @param jitterMs     variacion maxima que se suma a la demora
+     * @param errorRate    fraccion de pedidos que responden 503 (entre 0 y 1)
+     * @param seed         semilla de la variacion y de los errores
+     */
+    public FakePokeApi(int pokemonCount, long latencyMs, long jitterMs, double errorRate, long seed) {
+        this.pokemonCount = pokemonCount;
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.errorRate = errorRate;
+        this.random = new Random(seed);
+        server.setDispatcher(this);
+    }
+
+    public void start() throws IOException {
+        server.start();
+        baseUrl = server.url("/api/v2").toString();
+    }
+
+    /**
+     * @return url de la lista de pokemones, para usar como pokeapi.url
+     */
+    public String pokemonUrl() {
+        return baseUrl + "/pokemon";
+    }
+
+    /**
+     * @return cantidad de pedidos recibidos por tipo de recurso desde el ultimo reinicio
+     */
+    public Map<String, Long> requestCounts() {
+        return requestCount.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().get()));
+    }
+
+    public void resetCounts() {
+        requestCount.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.shutdown();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        String path = request.getRequestUrl().encodedPath();
+        String[] parts = path.replaceAll("^/api/v2/|/$", "").split("/");
+        String kind = parts[0];
+        Integer id = parts.length > 1 ? parseId(parts[1]) : null;
+        requestCount.computeIfAbsent(parts.length > 1 ? kind : kind + "-list", key -> new AtomicLong())
+                .incrementAndGet();
+
+        long delay = latencyMs + (jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0);
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            return new MockResponse().setResponseCode(503).setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        }
+        String body = switch (kind) {
+            case "pokemon" -> id == null ? pokemonList() : id <= pokemonCount ? pokemon(id) : null;
+            case "type" -> id == null ? null : type(id);
+            case "ability" -> id == null ? null : ability(id);
+            case "pokemon-species" -> id == null ? null : species(id);
+            case "evolution-chain" -> id == null ? null : evolutionChain(id);
+            default -> null;
+        };
+        if (body == null) {
+            return new MockResponse().setResponseCode(404).setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+        }
+        return new MockResponse()
+                .setBody(body)
+                .addHeader("Content-Type", "application/json")
+                .setHeadersDelay(delay, TimeUnit.MILLISECONDS);
+    }
+
+    private String pokemonList() {
+        String results = IntStream.rangeClosed(1, pokemonCount)
+                .mapToObj(id -> "{\"name\":\"pokemon-" + id + "\",\"url\":\"" + baseUrl + "/pokemon/" + id + "/\"}")
+                .collect(Collectors.joining(","));
+        return "{\"count\":" + pokemonCount + ",\"next\":null,\"previous\":null,\"results\":[" + results + "]}";
+    }
+
+    private String pokemon(int id) {
+        int type = id % TYPE_COUNT + 1;
+        int ability = id % ABILITY_COUNT + 1;
+        String moves = IntStream.rangeClosed(1, MOVE_COUNT)
+                .mapToObj(move -> "{\"move\":{\"name\":\"move-" + move + "\",\"url\":\"" + baseUrl + "/move/" + move
+                        + "/\"},\"version_group_details\":[{\"level_learned_at\":" + move
+                        + ",\"move_learn_method\":{\"name\":\"level-up\",\"url\":\"" + baseUrl
+                        + "/move-learn-method/1/\"}}]}")
+                .collect(Collectors.joining(","));
+        return "{\"id\":" + id + ",\"name\":\"pokemon-" + id + "\",\"base_experience\":112,\"height\":" + (id % 20 + 3)
+                + ",\"weight\":" + (id % 500 + 10) + ",\"is_default\":true,\"order\":" + id
+                + ",\"abilities\":["
+                + "{\"ability\":{\"name\":\"ability-" + ability + "\",\"url\":\"" + baseUrl + "/ability/" + ability
+                + "/\"},\"is_hidden\":false,\"slot\":1},"
+                + "{\"ability\":{\"name\":\"ability-" + (ability + 1) + "\",\"url\":\"" + baseUrl + "/ability/"
+                + (ability + 1) + "/\"},\"is_hidden\":true,\"slot\":3}],"
+                + "\"moves\":[" + moves + "],"
+                + "\"species\":{\"name\":\"pokemon-" + id + "\",\"url\":\"" + baseUrl + "/pokemon-species/" + id + "/\"},"
+                + "\"sprites\":{\"front_default\":\"https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/"
+                + id + ".png\",\"other\":{\"dream_world\":{\"front_default\":"
+                + "\"https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/other/dream-world/" + id
+                + ".svg\"}}},"
+                + "\"types\":[{\"slot\":1,\"type\":{\"name\":\"type-" + type + "\",\"url\":\"" + baseUrl + "/type/" + type
+                + "/\"}}]}";
+    }
+
+    private String type(int id) {
+        return "{\"id\":" + id + ",\"name\":\"type-" + id + "\",\"names\":["
+                + translations(language -> "{\"language\":{\"name\":\"" + language + "\",\"url\":\"" + baseUrl
+                        + "/language/1/\"},\"name\":\"Tipo " + id + " (" + language + ")\"}")
+                + "]}";
+    }
+
+    private String ability(int id) {
+        return "{\"id\":" + id + ",\"name\":\"ability-" + id + "\",\"flavor_text_entries\":["
+                + translations(language -> "{\"flavor_text\":\"Habilidad " + id + " (" + language
+                        + ")\",\"language\":{\"name\":\"" + language + "\",\"url\":\"" + baseUrl
+                        + "/language/1/\"},\"version_group\":{\"name\":\"scarlet-violet\",\"url\":\"" + baseUrl
+                        + "/version-group/25/\"}}")
+                + "]}";
+    }
+
+    private String species(int id) {
+        int chain = (id - 1) / CHAIN_SIZE + 1;
+        return "{\"id\":" + id + ",\"name\":\"pokemon-" + id + "\",\"evolution_chain\":{\"url\":\"" + baseUrl
+                + "/evolution-chain/" + chain + "/\"},\"flavor_text_entries\":["
+                + translations(language -> "{\"flavor_text\":\"Especie " + id + " (" + language
+                        + ")\",\"language\":{\"name\":\"" + language + "\",\"url\":\"" + baseUrl
+                        + "/language/1/\"},\"version\":{\"name\":\"scarlet\",\"url\":\"" + baseUrl + "/version/40/\"}}")
+                + "]}";
+    }
+
+    private String evolutionChain(int id) {
+        int first = (id - 1) * CHAIN_SIZE + 1;
+        String node = null;
+        for (int species = Math.min(first + CHAIN_SIZE - 1, pokemonCount); species >= first; species--) {
+            node = "{\"species\":{\"name\":\"pokemon-" + species + "\",\"url\":\"" + baseUrl + "/pokemon-species/"
+                    + species + "/\"},\"evolves_to\":[" + (node == null ? "" : node) + "]}";
+        }
+        return node == null ? null : "{\"id\":" + id + ",\"chain\":" + node + "}";
+    }
+
+    private static String translations(Function<String, String> entry) {
+        return List.copyOf(PokeController.VALID_LANGUAGES).stream()
+                .sorted()
+                .map(entry)
+                .collect(Collectors.joining(","));
+    }
+
+    private static Integer parseId(String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+}
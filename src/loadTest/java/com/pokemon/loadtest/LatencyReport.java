@@ -0,0 +1,93 @@
+package com.pokemon.loadtest;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Latencias y resultados de una corrida de carga. Guarda la latencia de cada pedido para calcular
+ * los percentiles exactos al terminar.
+ */
+public class LatencyReport {
+
+    private final String name;
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+    private long elapsedNanos;
+
+    /**
+     * @param name     nombre de la corrida en el reporte
+     * @param requests cantidad de pedidos de la corrida
+     */
+    public LatencyReport(String name, int requests) {
+        this.name = name;
+        this.latencies = new long[requests];
+    }
+
+    /**
+     * Registra un pedido terminado
+     *
+     * @param nanos   latencia del pedido
+     * @param success si el pedido respondio 2xx
+     */
+    public void record(long nanos, boolean success) {
+        int index = recorded.getAndIncrement();
+        if (index < latencies.length) {
+            latencies[index] = nanos;
+        }
+        if (!success) {
+            errors.incrementAndGet();
+        }
+    }
+
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRequests() {
+        return Math.min(recorded.get(), latencies.length);
+    }
+
+    public int getErrors() {
+        return errors.get();
+    }
+
+    /**
+     * @return pedidos por segundo durante la corrida
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : getRequests() / (elapsedNanos / 1_000_000_000.0);
+    }
+
+    /**
+     * @param percentile percentil entre 0 y 100
+     * @return latencia en milisegundos del percentil pedido
+     */
+    public double percentileMillis(double percentile) {
+        int count = getRequests();
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.min(Math.max(rank, 0), count - 1)] / 1_000_000.0;
+    }
+
+    public static String header() {
+        return String.format(Locale.ROOT, "%-32s %9s %7s %10s %9s %9s %9s %9s %9s",
+                "escenario", "pedidos", "errores", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f",
+                name, getRequests(), getErrors(), getThroughput(), percentileMillis(50), percentileMillis(90),
+                percentileMillis(99), percentileMillis(99.9), percentileMillis(100));
+    }
+}
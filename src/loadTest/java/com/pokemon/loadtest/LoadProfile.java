@@ -0,0 +1,24 @@
+package com.pokemon.loadtest;
+
+/**
+ * Escenarios de carga sobre /pokemon y /pokemon/{id}
+ */
+public enum LoadProfile {
+
+    /** caches vacias: cada pedido consulta la api de pokemon */
+    COLD("Caché vacía"),
+    /** los mismos pedidos luego de una vuelta de calentamiento, se resuelven desde la cache */
+    WARM("Caché caliente"),
+    /** caché caliente en español y pedidos repartidos entre varios idiomas */
+    MIXED_LANGUAGE("Idiomas mezclados");
+
+    private final String description;
+
+    LoadProfile(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
@@ -0,0 +1,206 @@
+package com.pokemon.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.pokemon.PokemonApiApplication;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import redis.embedded.RedisServer;
+
+/**
+ * Prueba de carga de punta a punta: levanta la aplicacion contra una api de pokemon local
+ * ({@link FakePokeApi}) y un Redis embebido, ejecuta los escenarios de {@link LoadProfile} sobre
+ * /pokemon y /pokemon/{id} y reporta pedidos por segundo y percentiles de latencia.
+ *
+ * <p>Se ejecuta con {@code ./gradlew loadTest}; la configuracion se pasa con propiedades
+ * {@code -Dloadtest.*} (ver {@link #property}).
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    // idiomas usados por el escenario de idiomas mezclados
+    private static final List<String> LANGUAGES = List.of("es", "en", "fr", "de", "ja", "it", "ko");
+
+    private final int requests = Integer.parseInt(property("requests", "1000"));
+    private final int concurrency = Integer.parseInt(property("concurrency", "32"));
+    private final int pageSize = Integer.parseInt(property("page-size", "5"));
+    private final int pokemonCount = Integer.parseInt(property("pokemon-count", "1025"));
+    private final List<LoadProfile> profiles = Arrays.stream(property("profiles", "COLD,WARM,MIXED_LANGUAGE").split(","))
+            .map(String::trim)
+            .map(LoadProfile::valueOf)
+            .toList();
+
+    private FakePokeApi pokeApi;
+    private WebClient client;
+
+    public static void main(String[] args) throws Exception {
+        new LoadTestRunner().runAll();
+    }
+
+    private void runAll() throws IOException {
+        int redisPort = Integer.parseInt(property("redis.port", "6399"));
+        boolean embeddedRedis = Boolean.parseBoolean(property("redis.embedded", "true"));
+        pokeApi = new FakePokeApi(pokemonCount,
+                Long.parseLong(property("upstream.latency-ms", "40")),
+                Long.parseLong(property("upstream.jitter-ms", "20")),
+                Double.parseDouble(property("upstream.error-rate", "0")),
+                Long.parseLong(property("seed", "42")));
+        RedisServer redis = embeddedRedis ? new RedisServer(redisPort) : null;
+        ConnectionProvider connections = ConnectionProvider.builder("loadtest")
+                .maxConnections(concurrency)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        ConfigurableApplicationContext context = null;
+        try {
+            pokeApi.start();
+            if (redis != null) {
+                redis.start();
+            }
+            context = new SpringApplicationBuilder(PokemonApiApplication.class)
+                    .properties(
+                            "server.port=0",
+                            "pokeapi.url=" + pokeApi.pokemonUrl(),
+                            "pokeapi.snapshot.path=",
+                            "pokeapi.http.http2=false",
+                            "spring.data.redis.host=" + property("redis.host", "localhost"),
+                            "spring.data.redis.port=" + redisPort,
+                            "logging.level.com.pokemon=WARN")
+                    .run();
+            String appUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            client = WebClient.builder()
+                    .baseUrl(appUrl)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+
+            List<LatencyReport> reports = new ArrayList<>();
+            for (LoadProfile profile : profiles) {
+                reports.addAll(runProfile(profile));
+            }
+            writeReport(reports);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            connections.dispose();
+            if (redis != null) {
+                redis.stop();
+            }
+            pokeApi.close();
+        }
+    }
+
+    /**
+     * Ejecuta un escenario sobre el detalle y sobre la lista. Cada endpoint empieza con las caches
+     * vacias, para que un escenario no caliente al siguiente
+     */
+    private List<LatencyReport> runProfile(LoadProfile profile) {
+        int pages = Math.max(pokemonCount / pageSize, 1);
+        IntFunction<String> detail = i -> "/pokemon/" + (i % pokemonCount + 1);
+        IntFunction<String> list = i -> "/pokemon?page=" + (i % pages) + "&size=" + pageSize;
+        return List.of(
+                runEndpoint(profile, "/pokemon/{id}", detail),
+                runEndpoint(profile, "/pokemon", list));
+    }
+
+    private LatencyReport runEndpoint(LoadProfile profile, String endpoint, IntFunction<String> path) {
+        clearCache();
+        List<String> spanish = uris(path, i -> "es");
+        List<String> measured = switch (profile) {
+            case COLD -> spanish;
+            case WARM -> {
+                execute(spanish, new LatencyReport("calentamiento", spanish.size()));
+                yield spanish;
+            }
+            case MIXED_LANGUAGE -> {
+                execute(spanish, new LatencyReport("calentamiento", spanish.size()));
+                yield uris(path, i -> LANGUAGES.get(i % LANGUAGES.size()));
+            }
+        };
+        pokeApi.resetCounts();
+        LatencyReport report = new LatencyReport(profile.name() + " " + endpoint, measured.size());
+        execute(measured, report);
+        log.info("{} - {} {}: llamadas a la api de pokemon {}", profile.getDescription(), endpoint, report,
+                new TreeMap<>(pokeApi.requestCounts()));
+        return report;
+    }
+
+    private List<String> uris(IntFunction<String> path, IntFunction<String> language) {
+        return IntStream.range(0, requests)
+                .mapToObj(i -> {
+                    String uri = path.apply(i);
+                    return uri + (uri.contains("?") ? "&" : "?") + "language=" + language.apply(i);
+                })
+                .toList();
+    }
+
+    private void execute(List<String> uris, LatencyReport report) {
+        long start = System.nanoTime();
+        Flux.fromIterable(uris)
+                .flatMap(uri -> timed(uri, report), concurrency)
+                .blockLast();
+        report.setElapsedNanos(System.nanoTime() - start);
+    }
+
+    private Mono<Boolean> timed(String uri, LatencyReport report) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return client.get()
+                    .uri(uri)
+                    .exchangeToMono(response -> response.releaseBody()
+                            .thenReturn(response.statusCode().is2xxSuccessful()))
+                    .timeout(Duration.ofSeconds(60))
+                    .onErrorReturn(false)
+                    .doOnNext(success -> report.record(System.nanoTime() - start, success));
+        });
+    }
+
+    private void clearCache() {
+        client.get()
+                .uri("/pokemon/clear-cache")
+                .retrieve()
+                .toBodilessEntity()
+                .block(Duration.ofSeconds(30));
+    }
+
+    private void writeReport(List<LatencyReport> reports) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "pedidos por escenario: %d, concurrencia: %d, pokemones: %d", requests,
+                concurrency, pokemonCount));
+        lines.add(LatencyReport.header());
+        reports.forEach(report -> lines.add(report.toString()));
+        lines.forEach(line -> log.info(line));
+
+        Path file = Path.of(property("report", "build/reports/loadtest/summary.txt"));
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, lines);
+        log.info("📄 Reporte guardado en {}", file.toAbsolutePath());
+    }
+
+    /**
+     * Propiedades de configuracion de la prueba, se leen de {@code -Dloadtest.<nombre>}:
+     * requests, concurrency, page-size, pokemon-count, profiles, upstream.latency-ms,
+     * upstream.jitter-ms, upstream.error-rate, seed, redis.embedded, redis.host, redis.port y report
+     */
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
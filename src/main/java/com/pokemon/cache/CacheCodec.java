@@ -0,0 +1,152 @@
+package com.pokemon.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Codificacion de los valores guardados en Redis. El formato compacto es Smile (JSON binario de
+ * Jackson, sin los nombres de clase que agrega GenericJackson2JsonRedisSerializer), opcionalmente
+ * comprimido con Deflate, precedido por un encabezado con marca, version, compresion y el momento
+ * de escritura de la entrada.
+ *
+ * <p>Al leer se aceptan tambien las entradas escritas con el formato JSON, de forma que se puede
+ * pasar de un formato a otro sin limpiar la cache; esas entradas no tienen fecha de escritura.
+ * Las entradas del baseline desplegado (claves {@code pokemon::} con el modelo anterior) no se
+ * leen: quedaron bajo otras claves y vencen por su ttl en Redis. Las entradas de una version
+ * desconocida (escritas por una instancia mas nueva) se tratan como ausentes.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+public class CacheCodec<V> {
+
+    /** formato con el que se escriben los valores */
+    public enum Format {
+        /** JSON con nombres de clase, como GenericJackson2JsonRedisSerializer */
+        JSON,
+        /** Smile con encabezado versionado */
+        SMILE
+    }
+
+    // primer byte de las entradas versionadas, no puede iniciar un JSON ni un documento Smile
+    static final byte MAGIC = (byte) 0xFE;
+    static final byte VERSION = 2;
+    static final byte UNCOMPRESSED = 0;
+    static final byte DEFLATE = 1;
+    // posicion de la fecha de escritura, despues de marca, version y compresion
+    private static final int WRITTEN_AT_OFFSET = 3;
+    // marca, version, compresion y fecha de escritura (long)
+    private static final int HEADER_SIZE = WRITTEN_AT_OFFSET + Long.BYTES;
+
+    private static final GenericJackson2JsonRedisSerializer LEGACY_SERIALIZER = new GenericJackson2JsonRedisSerializer();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final Class<V> type;
+    private final Format format;
+    private final int compressionThreshold;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    /**
+     * @param type                 tipo del valor
+     * @param format               formato de escritura
+     * @param compressionThreshold tamaño en bytes a partir del cual se comprime, negativo para no
+     *                             comprimir
+     */
+    public CacheCodec(Class<V> type, Format format, int compressionThreshold) {
+        this.type = type;
+        this.format = format;
+        this.compressionThreshold = compressionThreshold;
+        this.reader = SMILE_MAPPER.readerFor(type);
+        this.writer = SMILE_MAPPER.writerFor(type);
+    }
+
+    public Class<V> getType() {
+        return type;
+    }
+
+    /**
+     * @return true si las entradas se escriben con su fecha de escritura; el formato JSON no la
+     *         guarda
+     */
+    public boolean recordsWriteTime() {
+        return format != Format.JSON;
+    }
+
+    /**
+     * @param entry valor a guardar con su fecha de escritura
+     * @return bytes en el formato configurado; el formato JSON no guarda la fecha
+     */
+    public byte[] encode(CacheEntry<V> entry) {
+        if (format == Format.JSON) {
+            return LEGACY_SERIALIZER.serialize(entry.value());
+        }
+        try {
+            byte[] payload = writer.writeValueAsBytes(entry.value());
+            boolean compress = compressionThreshold >= 0 && payload.length >= compressionThreshold;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length + HEADER_SIZE);
+            out.write(MAGIC);
+            out.write(VERSION);
+            out.write(compress ? DEFLATE : UNCOMPRESSED);
+            out.write(ByteBuffer.allocate(Long.BYTES).putLong(entry.writtenAt()).array());
+            if (compress) {
+                try (OutputStream deflater = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED))) {
+                    deflater.write(payload);
+                }
+            } else {
+                out.write(payload);
+            }
+            return out.toByteArray();
+        } catch (IOException ex) {
+            throw new SerializationException("No se pudo codificar el valor " + type.getSimpleName(), ex);
+        }
+    }
+
+    /**
+     * @param bytes valor leido de Redis, en formato versionado o JSON
+     * @return entrada decodificada, null si es de otro tipo o de una version desconocida
+     */
+    public CacheEntry<V> decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            Object legacy = LEGACY_SERIALIZER.deserialize(bytes);
+            return type.isInstance(legacy) ? new CacheEntry<>(type.cast(legacy), CacheEntry.UNKNOWN) : null;
+        }
+        if (bytes.length < HEADER_SIZE || bytes[1] != VERSION) {
+            return null;
+        }
+        long writtenAt = ByteBuffer.wrap(bytes, WRITTEN_AT_OFFSET, Long.BYTES).getLong();
+        try {
+            V value;
+            if (bytes[2] == DEFLATE) {
+                try (InputStream in = new InflaterInputStream(
+                        new ByteArrayInputStream(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE))) {
+                    value = reader.readValue(in);
+                }
+            } else {
+                value = reader.readValue(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE);
+            }
+            return new CacheEntry<>(value, writtenAt);
+        } catch (IOException ex) {
+            throw new SerializationException("No se pudo decodificar el valor " + type.getSimpleName(), ex);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.pokemon.cache;
+
+/**
+ * Valor guardado en un {@link CacheStore} junto con el momento en que se escribio, usado para
+ * saber si la entrada esta vencida
+ *
+ * @param value     valor cacheado
+ * @param writtenAt momento de escritura en milisegundos desde epoch, {@link #UNKNOWN} si la
+ *                  entrada se escribio sin fecha (formato JSON)
+ * @param <V>       tipo del valor cacheado
+ */
+public record CacheEntry<V>(V value, long writtenAt) {
+
+    /** fecha de escritura desconocida */
+    public static final long UNKNOWN = 0;
+}
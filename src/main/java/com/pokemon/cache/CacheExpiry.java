@@ -0,0 +1,31 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+
+/**
+ * Vencimiento de las entradas de una {@link ReactiveCache}. Durante {@code ttl} la entrada esta
+ * vigente; luego, durante {@code staleTtl}, se sigue devolviendo mientras se refresca en segundo
+ * plano, y al terminar ese periodo se descarta (Redis la borra sola).
+ *
+ * @param ttl      tiempo en que la entrada esta vigente, null o cero para que no venza
+ * @param staleTtl tiempo adicional en que se devuelve la entrada vencida mientras se refresca
+ */
+public record CacheExpiry(Duration ttl, Duration staleTtl) {
+
+    /** las entradas no vencen */
+    public static final CacheExpiry NONE = new CacheExpiry(null, null);
+
+    public boolean expires() {
+        return ttl != null && !ttl.isZero() && !ttl.isNegative();
+    }
+
+    /**
+     * @return tiempo de vida de la entrada en el store (vigente mas vencida), null si no vence
+     */
+    public Duration storeTtl() {
+        if (!expires()) {
+            return null;
+        }
+        return staleTtl != null && !staleTtl.isNegative() ? ttl.plus(staleTtl) : ttl;
+    }
+}
@@ -0,0 +1,78 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Propaga la limpieza de las caches locales (L1) a todas las instancias usando
+ * pub/sub de Redis. Cada instancia escucha el canal y limpia su propia memoria.
+ */
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    public static final String CHANNEL = "pokemon:cache-invalidation";
+
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final List<ReactiveCache<?>> caches;
+    private Disposable subscription;
+
+    public CacheInvalidationBus(ReactiveStringRedisTemplate redisTemplate, List<ReactiveCache<?>> caches) {
+        this.redisTemplate = redisTemplate;
+        this.caches = caches;
+    }
+
+    /**
+     * Se suscribe al canal de invalidacion. Si se pierde la conexion con Redis se vuelve a
+     * suscribir con espera creciente
+     */
+    @PostConstruct
+    public void listen() {
+        subscription = Flux.defer(() -> redisTemplate.listenToChannel(CHANNEL))
+                .doOnNext(message -> {
+                    log.info("🧹 Invalidacion de cache recibida, limpiando memoria local");
+                    clearLocal();
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .doBeforeRetry(signal -> log.warn("⚠️ Sin suscripcion a la invalidacion de cache: {}",
+                                signal.failure().getMessage())))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Publica el pedido de limpieza para todas las instancias (incluida esta). Si Redis no
+     * esta disponible al menos se limpia la memoria local de esta instancia.
+     */
+    public Mono<Void> publish() {
+        return redisTemplate.convertAndSend(CHANNEL, "clear")
+                .onErrorResume(ex -> {
+                    log.warn("⚠️ No se pudo publicar la invalidacion de cache: {}", ex.getMessage());
+                    clearLocal();
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    private void clearLocal() {
+        caches.forEach(ReactiveCache::clearLocal);
+    }
+}
@@ -0,0 +1,48 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Almacenamiento compartido detras de {@link ReactiveCache} (Redis). Todas las operaciones son
+ * no bloqueantes.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+public interface CacheStore<V> {
+
+    /**
+     * @param key clave del valor
+     * @return entrada guardada, vacio si no existe
+     */
+    Mono<CacheEntry<V>> get(String key);
+
+    /**
+     * @param keys claves de los valores
+     * @return entradas encontradas por clave, sin incluir las claves ausentes
+     */
+    Mono<Map<String, CacheEntry<V>>> getAll(List<String> keys);
+
+    /**
+     * @param key   clave del valor
+     * @param entry valor a guardar con su fecha de escritura
+     * @param ttl   tiempo de vida de la entrada, null para que no venza
+     */
+    Mono<Void> put(String key, CacheEntry<V> entry, Duration ttl);
+
+    /**
+     * Borra todos los valores de la cache
+     */
+    Mono<Void> clear();
+
+    /**
+     * @return true si las entradas leidas conservan su fecha de escritura. Si el store no la
+     *         guarda, las entradas sin fecha se consideran vigentes hasta que el store las borre
+     */
+    default boolean recordsWriteTime() {
+        return true;
+    }
+}
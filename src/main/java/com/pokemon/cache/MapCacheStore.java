@@ -0,0 +1,49 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CacheStore} en memoria, para usar sin Redis (por ejemplo en pruebas). No borra las
+ * entradas al vencer; {@link ReactiveCache} descarta las vencidas al leerlas.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+public class MapCacheStore<V> implements CacheStore<V> {
+
+    private final Map<String, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Mono<CacheEntry<V>> get(String key) {
+        return Mono.fromSupplier(() -> entries.get(key));
+    }
+
+    @Override
+    public Mono<Map<String, CacheEntry<V>>> getAll(List<String> keys) {
+        return Mono.fromSupplier(() -> {
+            Map<String, CacheEntry<V>> found = new HashMap<>();
+            keys.forEach(key -> {
+                CacheEntry<V> entry = entries.get(key);
+                if (entry != null) {
+                    found.put(key, entry);
+                }
+            });
+            return found;
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, CacheEntry<V> entry, Duration ttl) {
+        return Mono.fromRunnable(() -> entries.put(key, entry));
+    }
+
+    @Override
+    public Mono<Void> clear() {
+        return Mono.fromRunnable(entries::clear);
+    }
+}
@@ -0,0 +1,95 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+/**
+ * Cache local acotada (L1) de objetos ya deserializados, ubicada delante de Redis.
+ * Usa Caffeine, que no bloquea las lecturas y elige la entrada a desalojar por frecuencia y
+ * antiguedad de uso (W-TinyLFU). Se acota por cantidad de entradas o, para valores de tamaño
+ * variable como los JSON ya serializados, por el peso total que informa un weigher; las entradas
+ * pueden tener ademas un tiempo de vida desde que se escriben.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+public class NearCache<V> {
+
+    private final Cache<String, V> entries;
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxEntries cantidad maxima de entradas
+     * @param ttl        tiempo de vida de cada entrada, null o cero para que no expiren
+     */
+    public NearCache(int maxEntries, Duration ttl) {
+        this(maxEntries, null, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param maxWeight peso total maximo de las entradas
+     * @param weigher   peso de cada valor, por ejemplo su tamaño en bytes
+     * @param ttl       tiempo de vida de cada entrada, null o cero para que no expiren
+     */
+    public NearCache(long maxWeight, ToIntFunction<V> weigher, Duration ttl) {
+        this(maxWeight, weigher, ttl, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    NearCache(long maximum, ToIntFunction<V> weigher, Duration ttl, Ticker ticker, Executor executor) {
+        Caffeine<String, V> builder = Caffeine.newBuilder()
+                .ticker(ticker)
+                .executor(executor)
+                .evictionListener((String key, V value, RemovalCause cause) -> {
+                    if (cause == RemovalCause.SIZE) {
+                        evictions.increment();
+                    }
+                });
+        if (weigher != null) {
+            builder = builder.weigher((String key, V value) -> weigher.applyAsInt(value)).maximumWeight(maximum);
+        } else {
+            builder = builder.maximumSize(maximum);
+        }
+        if (ttl != null && !ttl.isZero()) {
+            builder = builder.expireAfterWrite(ttl);
+        }
+        this.entries = builder.build();
+    }
+
+    public V get(String key) {
+        return entries.getIfPresent(key);
+    }
+
+    public void put(String key, V value) {
+        entries.put(key, value);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    /**
+     * @return cantidad aproximada de entradas, puede incluir entradas vencidas aun no descartadas
+     */
+    public long size() {
+        return entries.estimatedSize();
+    }
+
+    /**
+     * @return cantidad de entradas desalojadas por falta de espacio
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    // aplica los desalojos y vencimientos pendientes, que Caffeine procesa de forma diferida
+    void cleanUp() {
+        entries.cleanUp();
+    }
+}
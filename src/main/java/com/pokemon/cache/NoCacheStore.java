@@ -0,0 +1,36 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CacheStore} que no guarda nada, para las caches que viven solo en la memoria local de
+ * cada instancia
+ *
+ * @param <V> tipo del valor cacheado
+ */
+public class NoCacheStore<V> implements CacheStore<V> {
+
+    @Override
+    public Mono<CacheEntry<V>> get(String key) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Map<String, CacheEntry<V>>> getAll(List<String> keys) {
+        return Mono.just(Map.of());
+    }
+
+    @Override
+    public Mono<Void> put(String key, CacheEntry<V> entry, Duration ttl) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> clear() {
+        return Mono.empty();
+    }
+}
@@ -0,0 +1,357 @@
+package com.pokemon.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeTranslationModel;
+
+/**
+ * Snapshot binario del Pokedex completo: indice de la lista, datos de cada pokemon que no
+ * dependen del idioma, tablas de textos por idioma de tipos, habilidades y especies (por url)
+ * y cadenas evolutivas por id de cadena.
+ * El archivo se mapea en memoria y cada entrada se decodifica recien cuando se pide.
+ *
+ * <pre>
+ * MAGIC VERSION builtAt
+ * recordCount idCount id*
+ * pokemonCount (id name imageList imageDetail weight height typeUrls abilityUrls speciesUrl evolutionChainUrl)*
+ * translationCount (url textCount (language text)*)*
+ * chainCount (chainId stageCount (size id*)*)*
+ * </pre>
+ * Los textos se guardan como largo + bytes UTF-8 (largo -1 para null) y los decimales
+ * nulos como NaN. builtAt es el momento (epoch millis) en que se empezo a armar el snapshot, y
+ * se usa como fecha de escritura de las entradas que se cargan desde el.
+ */
+public class PokedexSnapshot {
+
+    private static final int MAGIC = 0x504B4458; // "PKDX"
+    private static final int VERSION = 3;
+
+    private final ByteBuffer buffer;
+    private final long builtAt;
+    private final int recordCount;
+    private final int[] ids;
+    private final Map<Integer, Integer> pokemonOffsets;
+    private final Map<String, Integer> translationOffsets;
+    private final Map<Integer, Integer> chainOffsets;
+
+    private PokedexSnapshot(ByteBuffer buffer, long builtAt, int recordCount, int[] ids, Map<Integer, Integer> pokemonOffsets,
+            Map<String, Integer> translationOffsets, Map<Integer, Integer> chainOffsets) {
+        this.buffer = buffer;
+        this.builtAt = builtAt;
+        this.recordCount = recordCount;
+        this.ids = ids;
+        this.pokemonOffsets = pokemonOffsets;
+        this.translationOffsets = translationOffsets;
+        this.chainOffsets = chainOffsets;
+    }
+
+    /**
+     * Mapea el archivo en memoria y arma el indice de entradas
+     *
+     * @param path ubicacion del snapshot
+     * @return snapshot listo para consultar
+     * @throws IOException si el archivo no se puede leer o no tiene el formato esperado
+     */
+    public static PokedexSnapshot load(Path path) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("El archivo " + path + " no es un snapshot del Pokedex");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Version de snapshot no soportada: " + version);
+        }
+        long builtAt = buffer.getLong();
+
+        int recordCount = buffer.getInt();
+        int[] ids = new int[buffer.getInt()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getInt();
+        }
+
+        int pokemonCount = buffer.getInt();
+        Map<Integer, Integer> pokemonOffsets = new HashMap<>(pokemonCount * 2);
+        for (int i = 0; i < pokemonCount; i++) {
+            int offset = buffer.position();
+            pokemonOffsets.put(buffer.getInt(), offset);
+            // name, imageList, imageDetail
+            skipString(buffer);
+            skipString(buffer);
+            skipString(buffer);
+            // weight, height
+            buffer.position(buffer.position() + 2 * Double.BYTES);
+            skipStringList(buffer);
+            skipStringList(buffer);
+            // speciesUrl, evolutionChainUrl
+            skipString(buffer);
+            skipString(buffer);
+        }
+
+        int translationCount = buffer.getInt();
+        Map<String, Integer> translationOffsets = new HashMap<>(translationCount * 2);
+        for (int i = 0; i < translationCount; i++) {
+            int offset = buffer.position();
+            translationOffsets.put(readString(buffer), offset);
+            int textCount = buffer.getInt();
+            for (int t = 0; t < textCount; t++) {
+                skipString(buffer);
+                skipString(buffer);
+            }
+        }
+
+        int chainCount = buffer.getInt();
+        Map<Integer, Integer> chainOffsets = new HashMap<>(chainCount * 2);
+        for (int i = 0; i < chainCount; i++) {
+            int offset = buffer.position();
+            int chainId = buffer.getInt();
+            chainOffsets.put(chainId, offset);
+            int stageCount = buffer.getInt();
+            for (int s = 0; s < stageCount; s++) {
+                int size = buffer.getInt();
+                buffer.position(buffer.position() + size * Integer.BYTES);
+            }
+        }
+        return new PokedexSnapshot(buffer, builtAt, recordCount, ids, pokemonOffsets, translationOffsets, chainOffsets);
+    }
+
+    /**
+     * Escribe el snapshot en un archivo temporal y luego lo mueve a su ubicacion final
+     *
+     * @param path        ubicacion del snapshot
+     * @param builtAt     momento en que se empezaron a obtener los datos (epoch millis)
+     * @param recordCount cantidad total de pokemones informada por la api
+     * @param ids         ids de los pokemones en el orden de la lista
+     * @param pokemon     datos de cada pokemon que no dependen del idioma, por id
+     * @param translations textos por idioma de tipos, habilidades y especies, por url
+     * @param chains      etapas de cada cadena evolutiva (ids de pokemon) por id de cadena
+     * @throws IOException si no se puede escribir el archivo
+     */
+    public static void write(Path path, long builtAt, int recordCount, int[] ids, Map<Integer, PokeCoreModel> pokemon,
+            Map<String, Map<String, String>> translations, Map<Integer, List<List<Integer>>> chains)
+            throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream file = Files.newOutputStream(tmp);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(builtAt);
+            out.writeInt(recordCount);
+            out.writeInt(ids.length);
+            for (int id : ids) {
+                out.writeInt(id);
+            }
+
+            out.writeInt(pokemon.size());
+            for (Map.Entry<Integer, PokeCoreModel> entry : pokemon.entrySet()) {
+                PokeCoreModel poke = entry.getValue();
+                out.writeInt(entry.getKey());
+                writeString(out, poke.getName());
+                writeString(out, poke.getImageList());
+                writeString(out, poke.getImageDetail());
+                out.writeDouble(poke.getWeight() != null ? poke.getWeight() : Double.NaN);
+                out.writeDouble(poke.getHeight() != null ? poke.getHeight() : Double.NaN);
+                writeStringList(out, poke.getTypeUrls());
+                writeStringList(out, poke.getAbilityUrls());
+                writeString(out, poke.getSpeciesUrl());
+                writeString(out, poke.getEvolutionChainUrl());
+            }
+
+            out.writeInt(translations.size());
+            for (Map.Entry<String, Map<String, String>> entry : translations.entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (Map.Entry<String, String> text : entry.getValue().entrySet()) {
+                    writeString(out, text.getKey());
+                    writeString(out, text.getValue());
+                }
+            }
+
+            out.writeInt(chains.size());
+            for (Map.Entry<Integer, List<List<Integer>>> entry : chains.entrySet()) {
+                out.writeInt(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (List<Integer> stage : entry.getValue()) {
+                    out.writeInt(stage.size());
+                    for (Integer id : stage) {
+                        out.writeInt(id);
+                    }
+                }
+            }
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return momento en que se empezo a armar el snapshot (epoch millis)
+     */
+    public long getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * @return cantidad total de pokemones informada por la api al momento de armar el snapshot
+     */
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return ids de los pokemones en el orden de la lista
+     */
+    public int[] getIds() {
+        return ids;
+    }
+
+    /**
+     * @return cantidad de pokemones incluidos
+     */
+    public int getPokemonCount() {
+        return pokemonOffsets.size();
+    }
+
+    public Optional<PokeCoreModel> getCore(Integer id) {
+        Integer offset = pokemonOffsets.get(id);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        int pokeId = in.getInt();
+        String name = readString(in);
+        String imageList = readString(in);
+        String imageDetail = readString(in);
+        double weight = in.getDouble();
+        double height = in.getDouble();
+        return Optional.of(PokeCoreModel.builder()
+                .id(pokeId)
+                .name(name)
+                .imageList(imageList)
+                .imageDetail(imageDetail)
+                .weight(Double.isNaN(weight) ? null : weight)
+                .height(Double.isNaN(height) ? null : height)
+                .typeUrls(readStringList(in))
+                .abilityUrls(readStringList(in))
+                .speciesUrl(readString(in))
+                .evolutionChainUrl(readString(in))
+                .build());
+    }
+
+    public Optional<PokeTranslationModel> getTranslations(String url) {
+        Integer offset = translationOffsets.get(url);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset);
+        skipString(in);
+        int textCount = in.getInt();
+        Map<String, String> texts = new HashMap<>(textCount * 2);
+        for (int i = 0; i < textCount; i++) {
+            String language = readString(in);
+            texts.put(language, readString(in));
+        }
+        return Optional.of(PokeTranslationModel.builder()
+                .texts(texts)
+                .build());
+    }
+
+    public Optional<List<List<Integer>>> getEvolutionStages(Integer chainId) {
+        Integer offset = chainOffsets.get(chainId);
+        if (offset == null) {
+            return Optional.empty();
+        }
+        ByteBuffer in = buffer.duplicate();
+        in.position(offset + Integer.BYTES);
+        int stageCount = in.getInt();
+        List<List<Integer>> stages = new ArrayList<>(stageCount);
+        for (int s = 0; s < stageCount; s++) {
+            int size = in.getInt();
+            List<Integer> stage = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                stage.add(in.getInt());
+            }
+            stages.add(stage);
+        }
+        return Optional.of(stages);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeStringList(DataOutputStream out, List<String> values) throws IOException {
+        if (values == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, value);
+        }
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> readStringList(ByteBuffer in) {
+        int size = in.getInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString(in));
+        }
+        return values;
+    }
+
+    private static void skipString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length > 0) {
+            in.position(in.position() + length);
+        }
+    }
+
+    private static void skipStringList(ByteBuffer in) {
+        int size = in.getInt();
+        for (int i = 0; i < size; i++) {
+            skipString(in);
+        }
+    }
+}
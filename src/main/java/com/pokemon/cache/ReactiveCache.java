@@ -0,0 +1,535 @@
+package com.pokemon.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache reactiva de dos niveles: una cache local acotada (L1, opcional) y un
+ * {@link CacheStore} (Redis) compartido entre instancias, sin operaciones bloqueantes.
+ * Las busquedas concurrentes de una misma clave se agrupan en una unica carga, de
+ * forma que N pedidos simultaneos generan una sola llamada a la api de pokemon.
+ * Al registrarse como {@link MeterBinder} publica el tiempo de cada busqueda segun de donde
+ * se obtuvo el valor (memoria, store o carga), los desalojos y el tamaño de la memoria local.
+ *
+ * <p>Con un {@link CacheExpiry} las entradas vencidas se siguen devolviendo mientras una unica
+ * recarga por clave las actualiza en segundo plano (stale-while-revalidate), de forma que los
+ * cambios de la api se propagan sin que todos los pedidos esperen a la api al mismo tiempo.
+ *
+ * <p>Los valores cargados que no cumplen el criterio de guardado se entregan a todos los
+ * suscriptores de la carga pero no se guardan; en una recarga se sigue usando la entrada vencida.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+@Slf4j
+public class ReactiveCache<V> implements MeterBinder {
+
+    /** valor encontrado en la memoria local */
+    public static final String RESULT_LOCAL = "local";
+    /** valor encontrado en el store */
+    public static final String RESULT_STORE = "store";
+    /** valor obtenido con el loader */
+    public static final String RESULT_MISS = "miss";
+
+    private final String name;
+    private final CacheStore<V> store;
+    private final NearCache<CacheEntry<V>> local;
+    private final CacheExpiry expiry;
+    private final Predicate<V> storable;
+    private final Clock clock;
+    // cargas en curso, compartidas por todos los suscriptores de la misma clave
+    private final Map<String, Mono<Loaded<V>>> inFlight = new ConcurrentHashMap<>();
+    // claves vencidas que se estan recargando en segundo plano
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private volatile MeterRegistry meterRegistry;
+    // medidores ya registrados, para no armarlos en cada busqueda
+    private final Map<String, RequestTimers> requestTimers = new ConcurrentHashMap<>();
+    private volatile RefreshCounters refreshCounters;
+
+    /**
+     * @param name  nombre de la cache, usado en los logs
+     * @param store almacenamiento compartido (Redis) donde se persisten los valores
+     * @param local cache local delante del store, null para no usar memoria local
+     */
+    public ReactiveCache(String name, CacheStore<V> store, NearCache<CacheEntry<V>> local) {
+        this(name, store, local, CacheExpiry.NONE);
+    }
+
+    /**
+     * @param name   nombre de la cache, usado en los logs
+     * @param store  almacenamiento compartido (Redis) donde se persisten los valores
+     * @param local  cache local delante del store, null para no usar memoria local
+     * @param expiry vencimiento de las entradas
+     */
+    public ReactiveCache(String name, CacheStore<V> store, NearCache<CacheEntry<V>> local, CacheExpiry expiry) {
+        this(name, store, local, expiry, value -> true, Clock.systemUTC());
+    }
+
+    /**
+     * @param name     nombre de la cache, usado en los logs
+     * @param store    almacenamiento compartido (Redis) donde se persisten los valores
+     * @param local    cache local delante del store, null para no usar memoria local
+     * @param expiry   vencimiento de las entradas
+     * @param storable criterio para guardar un valor cargado, por ejemplo para no guardar los
+     *                 armados con datos incompletos
+     */
+    public ReactiveCache(String name, CacheStore<V> store, NearCache<CacheEntry<V>> local, CacheExpiry expiry,
+            Predicate<V> storable) {
+        this(name, store, local, expiry, storable, Clock.systemUTC());
+    }
+
+    ReactiveCache(String name, CacheStore<V> store, NearCache<CacheEntry<V>> local, CacheExpiry expiry,
+            Clock clock) {
+        this(name, store, local, expiry, value -> true, clock);
+    }
+
+    ReactiveCache(String name, CacheStore<V> store, NearCache<CacheEntry<V>> local, CacheExpiry expiry,
+            Predicate<V> storable, Clock clock) {
+        this.name = name;
+        this.store = store;
+        this.local = local;
+        this.expiry = expiry;
+        this.storable = storable;
+        this.clock = clock;
+    }
+
+    /**
+     * Obtiene el valor de la clave, buscando primero en memoria, luego en el store y
+     * por ultimo ejecutando el loader. Si ya hay una carga en curso para la clave se
+     * reutiliza en lugar de iniciar otra.
+     *
+     * @param key    clave del valor
+     * @param loader funcion que obtiene el valor cuando no esta cacheado
+     * @return valor cacheado o recien cargado
+     */
+    public Mono<V> get(String key, Supplier<Mono<V>> loader) {
+        return get(key, name, loader);
+    }
+
+    /**
+     * Igual que {@link #get(String, Supplier)}, indicando el tipo de dato buscado para las
+     * metricas cuando una misma cache guarda datos de distintos endpoints
+     *
+     * @param key    clave del valor
+     * @param kind   tipo de dato buscado, usado como tag de las metricas
+     * @param loader funcion que obtiene el valor cuando no esta cacheado
+     * @return valor cacheado o recien cargado
+     */
+    public Mono<V> get(String key, String kind, Supplier<Mono<V>> loader) {
+        return get(key, kind, loader, loader);
+    }
+
+    /**
+     * Igual que {@link #get(String, String, Supplier)}, con una consulta distinta para recargar
+     * las entradas vencidas, por ejemplo para ir directo a la api en lugar de a un snapshot
+     *
+     * @param key       clave del valor
+     * @param kind      tipo de dato buscado, usado como tag de las metricas
+     * @param loader    funcion que obtiene el valor cuando no esta cacheado
+     * @param refresher funcion que obtiene el valor actualizado cuando la entrada esta vencida
+     * @return valor cacheado (aunque este vencido) o recien cargado
+     */
+    public Mono<V> get(String key, String kind, Supplier<Mono<V>> loader, Supplier<Mono<V>> refresher) {
+        return getDated(key, kind, () -> now(loader.get()), refresher);
+    }
+
+    /**
+     * Igual que {@link #get(String, String, Supplier, Supplier)}, con un loader que informa la
+     * fecha de los datos que devuelve, por ejemplo los de un snapshot armado antes. La entrada se
+     * guarda con esa fecha, de forma que vence y se refresca segun la edad de sus datos
+     *
+     * @param key       clave del valor
+     * @param kind      tipo de dato buscado, usado como tag de las metricas
+     * @param loader    funcion que obtiene el valor con su fecha cuando no esta cacheado
+     * @param refresher funcion que obtiene el valor actualizado cuando la entrada esta vencida
+     * @return valor cacheado (aunque este vencido) o recien cargado
+     */
+    public Mono<V> getDated(String key, String kind, Supplier<Mono<CacheEntry<V>>> loader,
+            Supplier<Mono<V>> refresher) {
+        // la memoria se consulta al suscribirse, no al armar el Mono
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            CacheEntry<V> entry = local != null ? usable(local.get(key)) : null;
+            if (entry != null) {
+                record(kind, RESULT_LOCAL, "success", start);
+                refreshIfStale(key, entry, refresher);
+                return Mono.just(entry.value());
+            }
+            return inFlight.computeIfAbsent(key, k -> load(k, loader, refresher, true))
+                    .doOnNext(loaded -> record(kind, loaded.result(), "success", start))
+                    .doOnError(ex -> record(kind, RESULT_MISS, "error", start))
+                    .map(Loaded::value);
+        });
+    }
+
+    /**
+     * Obtiene los valores de varias claves: primero los de memoria, luego todos los del store en
+     * una sola lectura y por ultimo carga los faltantes con concurrencia acotada. Las cargas
+     * comparten las consultas en curso de {@link #get(String, String, Supplier)}. Las claves cuya
+     * carga falla no se incluyen en el resultado.
+     *
+     * @param keys        claves buscadas
+     * @param kind        tipo de dato buscado, usado como tag de las metricas
+     * @param loader      funcion que obtiene el valor de una clave que no esta cacheada
+     * @param concurrency cantidad maxima de cargas en paralelo
+     * @return valores encontrados, por clave
+     */
+    public Mono<Map<String, V>> getAll(Collection<String> keys, String kind, Function<String, Mono<V>> loader,
+            int concurrency) {
+        return getAll(keys, kind, loader, loader, concurrency);
+    }
+
+    /**
+     * Igual que {@link #getAll(Collection, String, Function, int)}, con una consulta distinta para
+     * recargar las entradas vencidas
+     *
+     * @param keys        claves buscadas
+     * @param kind        tipo de dato buscado, usado como tag de las metricas
+     * @param loader      funcion que obtiene el valor de una clave que no esta cacheada
+     * @param refresher   funcion que obtiene el valor actualizado de una clave vencida
+     * @param concurrency cantidad maxima de cargas en paralelo
+     * @return valores encontrados, por clave
+     */
+    public Mono<Map<String, V>> getAll(Collection<String> keys, String kind, Function<String, Mono<V>> loader,
+            Function<String, Mono<V>> refresher, int concurrency) {
+        return getAllDated(keys, kind, key -> now(loader.apply(key)), refresher, concurrency);
+    }
+
+    /**
+     * Igual que {@link #getAll(Collection, String, Function, Function, int)}, con un loader que
+     * informa la fecha de los datos que devuelve, como en
+     * {@link #getDated(String, String, Supplier, Supplier)}
+     *
+     * @param keys        claves buscadas
+     * @param kind        tipo de dato buscado, usado como tag de las metricas
+     * @param loader      funcion que obtiene el valor con su fecha de una clave que no esta cacheada
+     * @param refresher   funcion que obtiene el valor actualizado de una clave vencida
+     * @param concurrency cantidad maxima de cargas en paralelo
+     * @return valores encontrados, por clave
+     */
+    public Mono<Map<String, V>> getAllDated(Collection<String> keys, String kind,
+            Function<String, Mono<CacheEntry<V>>> loader, Function<String, Mono<V>> refresher, int concurrency) {
+        return getAllDated(keys, kind, loader, refresher, ex -> true, concurrency);
+    }
+
+    /**
+     * Igual que {@link #getAllDated(Collection, String, Function, Function, int)}, omitiendo solo
+     * las claves cuya carga falla con un error aceptado, por ejemplo porque el dato no existe; con
+     * cualquier otro error falla el resultado completo
+     *
+     * @param keys        claves buscadas
+     * @param kind        tipo de dato buscado, usado como tag de las metricas
+     * @param loader      funcion que obtiene el valor con su fecha de una clave que no esta cacheada
+     * @param refresher   funcion que obtiene el valor actualizado de una clave vencida
+     * @param omitted     errores de carga con los que se omite la clave
+     * @param concurrency cantidad maxima de cargas en paralelo
+     * @return valores encontrados, por clave
+     */
+    public Mono<Map<String, V>> getAllDated(Collection<String> keys, String kind,
+            Function<String, Mono<CacheEntry<V>>> loader, Function<String, Mono<V>> refresher,
+            Predicate<Throwable> omitted, int concurrency) {
+        return Mono.defer(() -> lookupAll(keys, kind, loader, refresher, omitted, concurrency));
+    }
+
+    private Mono<Map<String, V>> lookupAll(Collection<String> keys, String kind,
+            Function<String, Mono<CacheEntry<V>>> loader, Function<String, Mono<V>> refresher,
+            Predicate<Throwable> omitted, int concurrency) {
+        Map<String, V> found = new ConcurrentHashMap<>();
+        List<String> pending = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            long start = System.nanoTime();
+            CacheEntry<V> entry = local != null ? usable(local.get(key)) : null;
+            if (entry != null) {
+                record(kind, RESULT_LOCAL, "success", start);
+                refreshIfStale(key, entry, () -> refresher.apply(key));
+                found.put(key, entry.value());
+            } else {
+                pending.add(key);
+            }
+        }
+        if (pending.isEmpty()) {
+            return Mono.just(found);
+        }
+        long start = System.nanoTime();
+        return readStoreAll(pending)
+                .flatMapMany(stored -> {
+                    stored.forEach((key, read) -> {
+                        CacheEntry<V> entry = usable(read);
+                        if (entry == null) {
+                            return;
+                        }
+                        record(kind, RESULT_STORE, "success", start);
+                        if (local != null) {
+                            local.put(key, entry);
+                        }
+                        refreshIfStale(key, entry, () -> refresher.apply(key));
+                        found.put(key, entry.value());
+                    });
+                    return Flux.fromIterable(pending)
+                            .filter(key -> !found.containsKey(key));
+                })
+                .flatMap(key -> Mono.defer(() -> {
+                    long loadStart = System.nanoTime();
+                    return inFlight.computeIfAbsent(key,
+                                    k -> load(k, () -> loader.apply(k), () -> refresher.apply(k), false))
+                            .doOnNext(loaded -> {
+                                record(kind, loaded.result(), "success", loadStart);
+                                found.put(key, loaded.value());
+                            })
+                            .onErrorResume(ex -> {
+                                record(kind, RESULT_MISS, "error", loadStart);
+                                if (!omitted.test(ex)) {
+                                    return Mono.error(ex);
+                                }
+                                log.warn("⚠️ No se pudo cargar la clave {} de la cache {}: {}", key, name,
+                                        ex.getMessage());
+                                return Mono.empty();
+                            });
+                }), concurrency)
+                .then(Mono.fromSupplier(() -> found));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        requestTimers.clear();
+        refreshCounters = new RefreshCounters(refreshCounter(registry, "success"),
+                refreshCounter(registry, "discarded"), refreshCounter(registry, "error"));
+        if (local != null) {
+            FunctionCounter.builder("pokeapi.cache.evictions", local, NearCache::getEvictions)
+                    .description("Entradas desalojadas de la memoria local por falta de espacio")
+                    .tag("cache", name)
+                    .register(registry);
+            Gauge.builder("pokeapi.cache.size", local, NearCache::size)
+                    .description("Entradas en la memoria local")
+                    .tag("cache", name)
+                    .register(registry);
+        }
+    }
+
+    /**
+     * Limpia la memoria local y el store
+     */
+    public Mono<Void> clear() {
+        // la memoria se limpia despues del store para no volver a llenarla con valores borrados
+        return store.clear()
+                .onErrorResume(ex -> {
+                    log.warn("⚠️ No se pudo limpiar la cache {}: {}", name, ex.getMessage());
+                    return Mono.empty();
+                })
+                .then(Mono.fromRunnable(this::clearLocal));
+    }
+
+    /**
+     * Limpia solo la memoria local de esta instancia
+     */
+    public void clearLocal() {
+        if (local != null) {
+            local.clear();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @param fromStore si se busca primero en el store, false cuando ya se sabe que no esta
+     */
+    private Mono<Loaded<V>> load(String key, Supplier<Mono<CacheEntry<V>>> loader, Supplier<Mono<V>> refresher,
+            boolean fromStore) {
+        return (fromStore ? readStore(key).mapNotNull(this::usable) : Mono.<CacheEntry<V>>empty())
+                .map(entry -> new Loaded<>(entry, RESULT_STORE))
+                .switchIfEmpty(Mono.defer(() -> loader.get()
+                        .flatMap(entry -> writeStore(key, entry))
+                        .map(entry -> new Loaded<>(entry, RESULT_MISS))))
+                .doOnNext(loaded -> {
+                    if (local != null && storable.test(loaded.value())) {
+                        local.put(key, loaded.entry());
+                    }
+                    // despues de guardarla en memoria, para que la recarga no quede pisada
+                    refreshIfStale(key, loaded.entry(), refresher);
+                })
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+    }
+
+    /**
+     * Si la entrada esta vencida inicia su recarga en segundo plano, salvo que ya haya una en
+     * curso para la clave. Si la recarga falla se sigue usando la entrada vencida
+     */
+    private void refreshIfStale(String key, CacheEntry<V> entry, Supplier<Mono<V>> refresher) {
+        if (!isStale(entry) || !refreshing.add(key)) {
+            return;
+        }
+        now(Mono.defer(refresher))
+                .flatMap(refreshed -> writeStore(key, refreshed))
+                .doFinally(signal -> refreshing.remove(key))
+                .subscribe(refreshed -> {
+                    RefreshCounters counters = refreshCounters;
+                    if (!storable.test(refreshed.value())) {
+                        if (counters != null) {
+                            counters.discarded().increment();
+                        }
+                        return;
+                    }
+                    if (local != null) {
+                        local.put(key, refreshed);
+                    }
+                    if (counters != null) {
+                        counters.success().increment();
+                    }
+                }, ex -> {
+                    RefreshCounters counters = refreshCounters;
+                    if (counters != null) {
+                        counters.error().increment();
+                    }
+                    log.warn("⚠️ No se pudo refrescar la clave {} de la cache {}: {}", key, name, ex.getMessage());
+                });
+    }
+
+    private boolean isStale(CacheEntry<V> entry) {
+        if (!expiry.expires()) {
+            return false;
+        }
+        if (entry.writtenAt() == CacheEntry.UNKNOWN) {
+            // las entradas sin fecha se reescriben una vez con fecha; si el store no guarda la
+            // fecha (formato JSON) la refrescaria en cada lectura, y el vencimiento queda a cargo
+            // del ttl del store
+            return store.recordsWriteTime();
+        }
+        return clock.millis() - entry.writtenAt() >= expiry.ttl().toMillis();
+    }
+
+    /**
+     * @return la entrada si se puede devolver (vigente o vencida dentro del periodo de recarga),
+     *         null si no existe o ya vencio del todo
+     */
+    private CacheEntry<V> usable(CacheEntry<V> entry) {
+        if (entry == null || !expiry.expires() || entry.writtenAt() == CacheEntry.UNKNOWN) {
+            return entry;
+        }
+        return clock.millis() - entry.writtenAt() < expiry.storeTtl().toMillis() ? entry : null;
+    }
+
+    private void record(String kind, String result, String outcome, long start) {
+        MeterRegistry registry = meterRegistry;
+        if (registry == null) {
+            return;
+        }
+        RequestTimers timers = requestTimers.get(kind);
+        if (timers == null) {
+            timers = requestTimers.computeIfAbsent(kind, k -> new RequestTimers(
+                    requestTimer(registry, k, RESULT_LOCAL, "success"),
+                    requestTimer(registry, k, RESULT_STORE, "success"),
+                    requestTimer(registry, k, RESULT_MISS, "success"),
+                    requestTimer(registry, k, RESULT_MISS, "error")));
+        }
+        timers.of(result, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer requestTimer(MeterRegistry registry, String kind, String result, String outcome) {
+        return Timer.builder("pokeapi.cache.requests")
+                .description("Tiempo para obtener un valor de la cache, segun de donde se obtuvo")
+                .tag("cache", name)
+                .tag("kind", kind)
+                .tag("result", result)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Counter refreshCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("pokeapi.cache.refreshes")
+                .description("Recargas en segundo plano de entradas vencidas")
+                .tag("cache", name)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private Mono<CacheEntry<V>> readStore(String key) {
+        return store.get(key)
+                .onErrorResume(ex -> {
+                    log.warn("⚠️ No se pudo leer la cache {} para la clave {}: {}", name, key, ex.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Map<String, CacheEntry<V>>> readStoreAll(List<String> keys) {
+        return store.getAll(keys)
+                .onErrorResume(ex -> {
+                    log.warn("⚠️ No se pudo leer la cache {} para {} claves: {}", name, keys.size(), ex.getMessage());
+                    return Mono.just(Map.of());
+                });
+    }
+
+    // fecha de escritura de los valores recien obtenidos de la api
+    private Mono<CacheEntry<V>> now(Mono<V> value) {
+        return value.map(v -> new CacheEntry<>(v, clock.millis()));
+    }
+
+    private Mono<CacheEntry<V>> writeStore(String key, CacheEntry<V> entry) {
+        if (!storable.test(entry.value())) {
+            return Mono.just(entry);
+        }
+        // las entradas con datos anteriores (de un snapshot) viven en el store lo que les queda
+        Duration ttl = expiry.storeTtl();
+        if (ttl != null && entry.writtenAt() != CacheEntry.UNKNOWN) {
+            ttl = ttl.minusMillis(clock.millis() - entry.writtenAt());
+            if (ttl.isZero() || ttl.isNegative()) {
+                return Mono.just(entry);
+            }
+        }
+        return store.put(key, entry, ttl)
+                .onErrorResume(ex -> {
+                    log.warn("⚠️ No se pudo escribir la cache {} para la clave {}: {}", name, key, ex.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(entry);
+    }
+
+    // tiempos de busqueda de un tipo de dato, segun de donde se obtuvo el valor
+    private record RequestTimers(Timer local, Timer store, Timer miss, Timer error) {
+
+        Timer of(String result, String outcome) {
+            if (!"success".equals(outcome)) {
+                return error;
+            }
+            if (RESULT_LOCAL.equals(result)) {
+                return local;
+            }
+            return RESULT_STORE.equals(result) ? store : miss;
+        }
+    }
+
+    // recargas en segundo plano, segun su resultado
+    private record RefreshCounters(Counter success, Counter discarded, Counter error) {
+    }
+
+    // entrada junto con el lugar de donde se obtuvo
+    private record Loaded<V>(CacheEntry<V> entry, String result) {
+
+        V value() {
+            return entry.value();
+        }
+    }
+}
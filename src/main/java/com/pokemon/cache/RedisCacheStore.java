@@ -0,0 +1,104 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link CacheStore} sobre los comandos reactivos de Redis (Lettuce). Las claves usan el mismo
+ * formato que RedisCacheManager ({@code <cache>::<clave>}) y los valores se codifican con
+ * {@link CacheCodec}, de forma que se siguen leyendo las entradas guardadas antes de usar este
+ * store.
+ *
+ * @param <V> tipo del valor cacheado
+ */
+@Slf4j
+public class RedisCacheStore<V> implements CacheStore<V> {
+
+    // cantidad de claves pedidas en cada SCAN al limpiar la cache
+    private static final long SCAN_COUNT = 500;
+
+    private final String prefix;
+    private final CacheCodec<V> codec;
+    private final ReactiveRedisTemplate<String, byte[]> template;
+
+    /**
+     * @param name              nombre de la cache, usado como prefijo de las claves
+     * @param codec             codificacion de los valores
+     * @param connectionFactory conexion reactiva a Redis
+     */
+    public RedisCacheStore(String name, CacheCodec<V> codec, ReactiveRedisConnectionFactory connectionFactory) {
+        this.prefix = name + "::";
+        this.codec = codec;
+        this.template = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                .<String, byte[]>newSerializationContext(new StringRedisSerializer())
+                .value(RedisSerializer.byteArray())
+                .build());
+    }
+
+    @Override
+    public boolean recordsWriteTime() {
+        return codec.recordsWriteTime();
+    }
+
+    @Override
+    public Mono<CacheEntry<V>> get(String key) {
+        return template.opsForValue().get(prefix + key)
+                .mapNotNull(this::decode);
+    }
+
+    @Override
+    public Mono<Map<String, CacheEntry<V>>> getAll(List<String> keys) {
+        return template.opsForValue().multiGet(keys.stream().map(key -> prefix + key).toList())
+                .map(values -> {
+                    Map<String, CacheEntry<V>> found = new HashMap<>();
+                    for (int i = 0; i < values.size(); i++) {
+                        CacheEntry<V> entry = decode(values.get(i));
+                        if (entry != null) {
+                            found.put(keys.get(i), entry);
+                        }
+                    }
+                    return found;
+                });
+    }
+
+    @Override
+    public Mono<Void> put(String key, CacheEntry<V> entry, Duration ttl) {
+        return Mono.fromCallable(() -> codec.encode(entry))
+                .flatMap(bytes -> ttl != null
+                        ? template.opsForValue().set(prefix + key, bytes, ttl)
+                        : template.opsForValue().set(prefix + key, bytes))
+                .then();
+    }
+
+    // una entrada que no se puede decodificar se trata como ausente y se vuelve a cargar
+    private CacheEntry<V> decode(byte[] bytes) {
+        try {
+            return codec.decode(bytes);
+        } catch (SerializationException ex) {
+            log.warn("⚠️ Entrada ilegible en la cache {}: {}", prefix, ex.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public Mono<Void> clear() {
+        return template.delete(template.scan(ScanOptions.scanOptions()
+                        .match(prefix + "*")
+                        .count(SCAN_COUNT)
+                        .build()))
+                .then();
+    }
+}
@@ -0,0 +1,64 @@
+package com.pokemon.client;
+
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Publica el estado del pool de conexiones hacia la api de pokemon (conexiones en uso, ociosas
+ * y pedidos esperando una conexion) para poder dimensionarlo contra el armado de paginas.
+ * Reactor Netty crea un pool por cada host remoto, por eso cada gauge lleva el host como tag.
+ */
+public class ConnectionPoolMeterRegistrar implements ConnectionProvider.MeterRegistrar {
+
+    private final MeterRegistry meterRegistry;
+    // meters registrados por pool, para darlos de baja cuando el pool se cierra
+    private final Map<String, List<Meter>> meters = new ConcurrentHashMap<>();
+
+    public ConnectionPoolMeterRegistrar(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void registerMetrics(String poolName, String id, SocketAddress remoteAddress,
+            ConnectionPoolMetrics metrics) {
+        Tags tags = Tags.of("pool", poolName, "remote", remoteAddress.toString());
+        meters.put(id, List.of(
+                gauge("pokeapi.upstream.pool.active", "Conexiones en uso", metrics,
+                        ConnectionPoolMetrics::acquiredSize, tags),
+                gauge("pokeapi.upstream.pool.idle", "Conexiones abiertas sin uso", metrics,
+                        ConnectionPoolMetrics::idleSize, tags),
+                gauge("pokeapi.upstream.pool.total", "Conexiones abiertas", metrics,
+                        ConnectionPoolMetrics::allocatedSize, tags),
+                gauge("pokeapi.upstream.pool.pending", "Pedidos esperando una conexion libre", metrics,
+                        ConnectionPoolMetrics::pendingAcquireSize, tags),
+                gauge("pokeapi.upstream.pool.max", "Maximo de conexiones del pool", metrics,
+                        ConnectionPoolMetrics::maxAllocatedSize, tags)));
+    }
+
+    @Override
+    public void deRegisterMetrics(String poolName, String id, SocketAddress remoteAddress) {
+        List<Meter> registered = meters.remove(id);
+        if (registered != null) {
+            registered.forEach(meterRegistry::remove);
+        }
+    }
+
+    private Meter gauge(String name, String description, ConnectionPoolMetrics metrics,
+            ToDoubleFunction<ConnectionPoolMetrics> value, Tags tags) {
+        return Gauge.builder(name, metrics, value)
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,400 @@
+package com.pokemon.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Circuit breaker y bulkhead por tipo de endpoint de la api de pokemon (pokemon, type, ability,
+ * species, evolution-chain). Cada tipo tiene su propio maximo de llamadas concurrentes, que
+ * nunca supera la mitad del limite global vigente, de forma que un endpoint lento no ocupa los
+ * lugares del limite global que necesitan los demas; las llamadas que superan ese maximo esperan
+ * su turno (FIFO, sin bloquear threads) hasta el tiempo de espera configurado y recien ahi se
+ * rechazan. Cada tipo tiene tambien su propio circuito:
+ * cuando falla al menos la proporcion configurada de las ultimas llamadas el circuito se abre y
+ * las llamadas de ese tipo se rechazan al instante con {@link UpstreamUnavailableException}, en
+ * lugar de esperar el timeout. Pasado el tiempo de apertura se deja pasar una llamada de prueba
+ * que vuelve a cerrar o a abrir el circuito.
+ *
+ * <p>Se registra antes del limitador global: una llamada pide lugar en el limite global recien
+ * cuando obtuvo el de su tipo, asi las que esperan en el bulkhead no retienen lugares globales.
+ * Cada llamada ocupa su lugar hasta terminar de leer el cuerpo de la respuesta. El timeout por
+ * llamada se aplica con {@link #callTimeout()}, registrado despues del limitador para no contar
+ * la espera en su cola, y abarca tambien la lectura del cuerpo. Se cuentan como fallas los
+ * errores de conexion, las respuestas 5xx y las llamadas que no terminan dentro del timeout.
+ */
+@Slf4j
+public class UpstreamCircuitBreaker implements ExchangeFilterFunction {
+
+    /** circuito abierto */
+    public static final String REASON_CIRCUIT_OPEN = "circuit-open";
+    /** maximo de llamadas concurrentes del tipo alcanzado durante todo el tiempo de espera */
+    public static final String REASON_BULKHEAD_FULL = "bulkhead-full";
+
+    /**
+     * Estado del circuito de un tipo de endpoint, publicado como metrica con su ordinal
+     */
+    public enum State {
+        /** las llamadas pasan */
+        CLOSED,
+        /** las llamadas se rechazan */
+        OPEN,
+        /** pasa una unica llamada de prueba */
+        HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int maxConcurrentPerKind;
+    private final Duration maxWait;
+    private final Duration callTimeout;
+    private final IntSupplier globalLimit;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * @param windowSize           cantidad de llamadas recientes evaluadas para abrir el circuito
+     * @param failureRateThreshold proporcion de fallas (0 a 1) a partir de la cual se abre
+     * @param openDuration         tiempo que el circuito queda abierto antes de la llamada de prueba
+     * @param maxConcurrentPerKind maximo de llamadas concurrentes de cada tipo de endpoint
+     * @param maxWait              espera maxima por un lugar libre del tipo antes de rechazar la
+     *                             llamada
+     * @param callTimeout          tiempo maximo de cada llamada, incluyendo la lectura de la
+     *                             respuesta
+     * @param meterRegistry        registro de metricas
+     */
+    public UpstreamCircuitBreaker(int windowSize, double failureRateThreshold, Duration openDuration,
+            int maxConcurrentPerKind, Duration maxWait, Duration callTimeout, MeterRegistry meterRegistry) {
+        this(windowSize, failureRateThreshold, openDuration, maxConcurrentPerKind, maxWait, callTimeout,
+                () -> Integer.MAX_VALUE, meterRegistry);
+    }
+
+    /**
+     * @param windowSize           cantidad de llamadas recientes evaluadas para abrir el circuito
+     * @param failureRateThreshold proporcion de fallas (0 a 1) a partir de la cual se abre
+     * @param openDuration         tiempo que el circuito queda abierto antes de la llamada de prueba
+     * @param maxConcurrentPerKind maximo de llamadas concurrentes de cada tipo de endpoint
+     * @param maxWait              espera maxima por un lugar libre del tipo antes de rechazar la
+     *                             llamada
+     * @param callTimeout          tiempo maximo de cada llamada, incluyendo la lectura de la
+     *                             respuesta
+     * @param globalLimit          limite global vigente; cada tipo usa a lo sumo la mitad
+     * @param meterRegistry        registro de metricas
+     */
+    public UpstreamCircuitBreaker(int windowSize, double failureRateThreshold, Duration openDuration,
+            int maxConcurrentPerKind, Duration maxWait, Duration callTimeout, IntSupplier globalLimit,
+            MeterRegistry meterRegistry) {
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.maxConcurrentPerKind = maxConcurrentPerKind;
+        this.maxWait = maxWait;
+        this.callTimeout = callTimeout;
+        this.globalLimit = globalLimit;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        Family family = families.computeIfAbsent(UpstreamMetricsFilter.kindOf(request.url()), Family::new);
+        return Mono.defer(() -> {
+            // con el circuito abierto no tiene sentido esperar un lugar
+            if (family.isOpen()) {
+                return Mono.error(rejection(family, REASON_CIRCUIT_OPEN));
+            }
+            Call call = new Call(family);
+            return Mono.<Void>create(sink -> call.await(sink))
+                    .then(Mono.defer(() -> exchange(family, call, request, next)))
+                    .doOnError(ex -> call.fail())
+                    .doOnCancel(() -> {
+                        // una vez recibida la respuesta la llamada termina con la lectura del cuerpo
+                        if (!call.responded) {
+                            call.cancel();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Timeout de cada llamada desde que se envia, incluyendo la lectura del cuerpo. Se registra
+     * despues del limitador global; el error de timeout llega a este filtro y cuenta como falla
+     *
+     * @return filtro que aplica el timeout por llamada
+     */
+    public ExchangeFilterFunction callTimeout() {
+        return (request, next) -> Mono.defer(() -> {
+            long deadline = System.nanoTime() + callTimeout.toNanos();
+            return next.exchange(request)
+                    .timeout(callTimeout)
+                    .map(response -> response.mutate()
+                            .body(body -> body.timeout(remaining(deadline), buffer -> remaining(deadline)))
+                            .build());
+        });
+    }
+
+    /**
+     * @param kind tipo de endpoint
+     * @return estado actual del circuito del tipo, cerrado si todavia no hubo llamadas
+     */
+    public State getState(String kind) {
+        Family family = families.get(kind);
+        return family != null ? family.state() : State.CLOSED;
+    }
+
+    private Mono<ClientResponse> exchange(Family family, Call call, ClientRequest request, ExchangeFunction next) {
+        Permit permit = family.acquire();
+        if (permit == Permit.REJECTED) {
+            call.release();
+            return Mono.error(rejection(family, REASON_CIRCUIT_OPEN));
+        }
+        call.trial = permit == Permit.TRIAL;
+        return next.exchange(request)
+                .map(response -> {
+                    call.responded = true;
+                    boolean serverError = response.statusCode().is5xxServerError();
+                    return response.mutate()
+                            .body(body -> body
+                                    .doOnComplete(() -> call.complete(serverError))
+                                    .doOnError(ex -> call.complete(true))
+                                    .doOnCancel(call::cancel))
+                            .build();
+                });
+    }
+
+    // maximo de llamadas concurrentes de un tipo con el limite global vigente
+    private int maxConcurrent() {
+        return Math.min(maxConcurrentPerKind, Math.max(1, globalLimit.getAsInt() / 2));
+    }
+
+    // tiempo que le queda a la llamada para terminar de leer la respuesta
+    private static Mono<Long> remaining(long deadline) {
+        return Mono.defer(() -> Mono.delay(Duration.ofNanos(Math.max(0, deadline - System.nanoTime()))));
+    }
+
+    private UpstreamUnavailableException rejection(Family family, String reason) {
+        Counter.builder("pokeapi.upstream.rejected")
+                .description("Llamadas a la api de pokemon rechazadas sin enviarse")
+                .tag("kind", family.kind)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        return new UpstreamUnavailableException(family.kind, reason);
+    }
+
+    private enum Permit {
+        ALLOWED, TRIAL, REJECTED
+    }
+
+    // circuito y bulkhead de un tipo de endpoint
+    private final class Family {
+        final String kind;
+        final AtomicInteger active = new AtomicInteger();
+        final Queue<Call> waiting = new ConcurrentLinkedQueue<>();
+        // resultados de las ultimas llamadas (true si fallo), como buffer circular
+        final boolean[] outcomes = new boolean[windowSize];
+        int calls;
+        int failures;
+        int next;
+        State state = State.CLOSED;
+        long openedAt;
+        boolean trialInFlight;
+
+        Family(String kind) {
+            this.kind = kind;
+            Gauge.builder("pokeapi.upstream.circuit.state", this, family -> family.state().ordinal())
+                    .description("Estado del circuito: 0 cerrado, 1 abierto, 2 llamada de prueba")
+                    .tag("kind", kind)
+                    .register(meterRegistry);
+        }
+
+        synchronized State state() {
+            return state;
+        }
+
+        synchronized boolean isOpen() {
+            return state == State.OPEN && System.nanoTime() - openedAt < openNanos;
+        }
+
+        // entrega los lugares libres a las llamadas que esperan, en orden de llegada
+        void drain() {
+            while (!waiting.isEmpty()) {
+                int current = active.get();
+                if (current >= maxConcurrent()) {
+                    return;
+                }
+                if (!active.compareAndSet(current, current + 1)) {
+                    continue;
+                }
+                Call call = waiting.poll();
+                if (call == null || !call.grant()) {
+                    active.decrementAndGet();
+                }
+            }
+        }
+
+        void release() {
+            active.decrementAndGet();
+            drain();
+        }
+
+        synchronized Permit acquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return Permit.REJECTED;
+                }
+                state = State.HALF_OPEN;
+            }
+            if (state == State.HALF_OPEN) {
+                if (trialInFlight) {
+                    return Permit.REJECTED;
+                }
+                trialInFlight = true;
+                return Permit.TRIAL;
+            }
+            return Permit.ALLOWED;
+        }
+
+        synchronized void onResult(boolean trial, boolean failed) {
+            if (trial) {
+                trialInFlight = false;
+                if (failed) {
+                    open();
+                } else {
+                    close();
+                }
+                return;
+            }
+            // resultados de llamadas iniciadas antes de abrirse el circuito
+            if (state != State.CLOSED) {
+                return;
+            }
+            if (calls == windowSize) {
+                failures -= outcomes[next] ? 1 : 0;
+            } else {
+                calls++;
+            }
+            outcomes[next] = failed;
+            failures += failed ? 1 : 0;
+            next = (next + 1) % windowSize;
+            if (calls == windowSize && failures >= failureRateThreshold * windowSize) {
+                open();
+            }
+        }
+
+        synchronized void onCancel(boolean trial) {
+            if (trial) {
+                trialInFlight = false;
+            }
+        }
+
+        private void open() {
+            if (state != State.OPEN) {
+                log.warn("⚠️ Circuito abierto para las llamadas {} a la api de pokemon", kind);
+            }
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+
+        private void close() {
+            log.info("🔗 Circuito cerrado para las llamadas {} a la api de pokemon", kind);
+            state = State.CLOSED;
+            calls = 0;
+            failures = 0;
+            next = 0;
+        }
+    }
+
+    // una llamada, desde que espera un lugar hasta que termina de leer la respuesta
+    private final class Call {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int CANCELLED = 2;
+        static final int RELEASED = 3;
+
+        final Family family;
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        volatile MonoSink<Void> sink;
+        volatile Disposable timer;
+        volatile boolean trial;
+        volatile boolean responded;
+
+        Call(Family family) {
+            this.family = family;
+        }
+
+        void await(MonoSink<Void> sink) {
+            this.sink = sink;
+            sink.onCancel(this::abandon);
+            timer = Mono.delay(maxWait).subscribe(tick -> {
+                if (state.compareAndSet(WAITING, CANCELLED)) {
+                    sink.error(rejection(family, REASON_BULKHEAD_FULL));
+                }
+            });
+            family.waiting.offer(this);
+            family.drain();
+        }
+
+        boolean grant() {
+            if (!state.compareAndSet(WAITING, GRANTED)) {
+                return false;
+            }
+            timer.dispose();
+            sink.success();
+            return true;
+        }
+
+        // cancelada mientras esperaba: se descarta al drenar la cola
+        void abandon() {
+            if (state.compareAndSet(WAITING, CANCELLED)) {
+                Disposable pendingTimer = timer;
+                if (pendingTimer != null) {
+                    pendingTimer.dispose();
+                }
+            }
+        }
+
+        // libera el lugar sin registrar resultado en el circuito
+        boolean release() {
+            if (state.compareAndSet(GRANTED, RELEASED)) {
+                family.release();
+                return true;
+            }
+            abandon();
+            return false;
+        }
+
+        void complete(boolean failed) {
+            if (release()) {
+                family.onResult(trial, failed);
+            }
+        }
+
+        void fail() {
+            complete(true);
+        }
+
+        void cancel() {
+            if (release()) {
+                family.onCancel(trial);
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.pokemon.client;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limita la cantidad global de llamadas concurrentes a la api de pokemon. Los pedidos que
+ * superan el limite esperan en una cola (FIFO) sin bloquear threads, y el tiempo de espera se
+ * publica como metrica para poder dimensionar el limite. Cada llamada ocupa su lugar hasta
+ * terminar de leer el cuerpo de la respuesta, y esa lectura forma parte de su latencia.
+ *
+ * <p>El limite se adapta a la capacidad real de la api (AIMD) entre un minimo y un maximo: crece
+ * de a una llamada por cada ronda de respuestas rapidas cuando el limite esta en uso, y se reduce
+ * cuando la latencia reciente supera a la habitual en mas de la tolerancia configurada. Ante un
+ * 429 el limite se reduce a la mitad y no se inician llamadas nuevas hasta que pase el tiempo
+ * indicado en Retry-After. Todo el estado se actualiza sin locks.
+ */
+@Slf4j
+public class UpstreamConcurrencyLimiter implements ExchangeFilterFunction {
+
+    // peso de cada muestra en la latencia reciente y en la habitual
+    private static final double SHORT_ALPHA = 0.2;
+    private static final double LONG_ALPHA = 0.01;
+    // reduccion del limite cuando sube la latencia y ante un 429
+    private static final double LATENCY_BACKOFF = 0.9;
+    private static final double THROTTLE_BACKOFF = 0.5;
+    // pausa cuando un 429 no trae Retry-After
+    private static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double latencyTolerance;
+    private final long maxRetryAfterNanos;
+    // limite actual, como bits de un double para actualizarlo con CAS
+    private final AtomicLong limit;
+    private final AtomicLong shortLatencyNanos = new AtomicLong();
+    private final AtomicLong longLatencyNanos = new AtomicLong();
+    private final AtomicLong lastDecrease = new AtomicLong(System.nanoTime());
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+    private final AtomicInteger active = new AtomicInteger();
+    private final Queue<Waiter> pending = new ConcurrentLinkedQueue<>();
+    private final Timer queueTimer;
+    private final Counter throttledCounter;
+
+    /**
+     * Limite fijo, sin adaptarse a la latencia; igual respeta los 429
+     *
+     * @param maxConcurrency maximo de llamadas concurrentes
+     * @param meterRegistry  registro de metricas
+     */
+    public UpstreamConcurrencyLimiter(int maxConcurrency, MeterRegistry meterRegistry) {
+        this(maxConcurrency, maxConcurrency, Double.MAX_VALUE, Duration.ofSeconds(60), meterRegistry);
+    }
+
+    /**
+     * @param minConcurrency   minimo al que se puede reducir el limite
+     * @param maxConcurrency   maximo y valor inicial del limite
+     * @param latencyTolerance cuantas veces la latencia habitual se acepta antes de reducir el
+     *                         limite
+     * @param maxRetryAfter    pausa maxima ante un 429, aunque Retry-After indique mas
+     * @param meterRegistry    registro de metricas
+     */
+    public UpstreamConcurrencyLimiter(int minConcurrency, int maxConcurrency, double latencyTolerance,
+            Duration maxRetryAfter, MeterRegistry meterRegistry) {
+        this.minConcurrency = Math.max(1, Math.min(minConcurrency, maxConcurrency));
+        this.maxConcurrency = maxConcurrency;
+        this.latencyTolerance = latencyTolerance;
+        this.maxRetryAfterNanos = maxRetryAfter.toNanos();
+        this.limit = new AtomicLong(Double.doubleToLongBits(maxConcurrency));
+        this.queueTimer = Timer.builder("pokeapi.upstream.queue")
+                .description("Tiempo de espera por un lugar libre antes de llamar a la api de pokemon")
+                .register(meterRegistry);
+        this.throttledCounter = Counter.builder("pokeapi.upstream.throttled")
+                .description("Respuestas 429 de la api de pokemon")
+                .register(meterRegistry);
+        Gauge.builder("pokeapi.upstream.active", active, AtomicInteger::get)
+                .description("Llamadas en curso a la api de pokemon")
+                .register(meterRegistry);
+        Gauge.builder("pokeapi.upstream.pending", pending, Queue::size)
+                .description("Llamadas esperando un lugar libre")
+                .register(meterRegistry);
+        Gauge.builder("pokeapi.upstream.limit", this, UpstreamConcurrencyLimiter::getLimit)
+                .description("Limite actual de llamadas concurrentes a la api de pokemon")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Waiter waiter = new Waiter();
+            return Mono.<Void>create(sink -> {
+                        waiter.sink = sink;
+                        pending.offer(waiter);
+                        drain();
+                    })
+                    .then(Mono.defer(() -> {
+                        long start = System.nanoTime();
+                        return next.exchange(request)
+                                .map(response -> {
+                                    waiter.responded = true;
+                                    boolean throttled = response.statusCode().value()
+                                            == HttpStatus.TOO_MANY_REQUESTS.value();
+                                    if (throttled) {
+                                        onThrottled(response);
+                                    }
+                                    // el lugar se ocupa hasta terminar de leer el cuerpo, que tambien cuenta en la latencia
+                                    return response.mutate()
+                                            .body(body -> body.doFinally(signal -> {
+                                                if (signal == SignalType.ON_COMPLETE && !throttled) {
+                                                    onLatency(System.nanoTime() - start);
+                                                }
+                                                finish(waiter);
+                                            }))
+                                            .build();
+                                });
+                    }))
+                    .doOnError(ex -> finish(waiter))
+                    .doOnCancel(() -> {
+                        if (!waiter.responded) {
+                            finish(waiter);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * @return limite actual de llamadas concurrentes
+     */
+    public int getLimit() {
+        return (int) Double.longBitsToDouble(limit.get());
+    }
+
+    private void onThrottled(ClientResponse response) {
+        throttledCounter.increment();
+        long pause = Math.min(retryAfterNanos(response.headers().asHttpHeaders()), maxRetryAfterNanos);
+        pauseFor(pause);
+        updateLimit(current -> current * THROTTLE_BACKOFF);
+        log.warn("⚠️ La api de pokemon limito las llamadas (429), se pausan {} ms y el limite baja a {}",
+                TimeUnit.NANOSECONDS.toMillis(pause), getLimit());
+    }
+
+    private void onLatency(long latencyNanos) {
+        double shortLatency = ewma(shortLatencyNanos, latencyNanos, SHORT_ALPHA);
+        double longLatency = ewma(longLatencyNanos, latencyNanos, LONG_ALPHA);
+        if (shortLatency > longLatency * latencyTolerance) {
+            // a lo sumo una reduccion por cada latencia reciente, para no bajar una vez por llamada en curso
+            long last = lastDecrease.get();
+            long now = System.nanoTime();
+            if (now - last >= shortLatency && lastDecrease.compareAndSet(last, now)) {
+                updateLimit(current -> current * LATENCY_BACKOFF);
+            }
+        } else if (active.get() * 2 >= getLimit()) {
+            // crece de a una llamada por ronda completa de respuestas, solo si el limite esta en uso
+            updateLimit(current -> current + 1 / current);
+        }
+    }
+
+    private void updateLimit(DoubleUnaryOperator update) {
+        long bits;
+        double updated;
+        do {
+            bits = limit.get();
+            double current = Double.longBitsToDouble(bits);
+            updated = Math.max(minConcurrency, Math.min(maxConcurrency, update.applyAsDouble(current)));
+        } while (!limit.compareAndSet(bits, Double.doubleToLongBits(updated)));
+        // si el limite crecio pueden entrar pedidos que estaban esperando
+        drain();
+    }
+
+    private static double ewma(AtomicLong average, long sample, double alpha) {
+        long previous;
+        long updated;
+        do {
+            previous = average.get();
+            updated = previous == 0 ? sample : (long) (previous + alpha * (sample - previous));
+        } while (!average.compareAndSet(previous, updated));
+        return updated;
+    }
+
+    private void pauseFor(long pauseNanos) {
+        long until = System.nanoTime() + pauseNanos;
+        pausedUntil.accumulateAndGet(until, (current, candidate) -> candidate - current > 0 ? candidate : current);
+        // al terminar la pausa se atienden los pedidos que quedaron en la cola
+        Mono.delay(Duration.ofNanos(pauseNanos)).subscribe(tick -> drain());
+    }
+
+    /**
+     * @return pausa indicada en Retry-After (segundos o fecha HTTP), o la pausa por defecto
+     */
+    static long retryAfterNanos(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return DEFAULT_RETRY_AFTER.toNanos();
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(retryAfter.trim())));
+        } catch (NumberFormatException ex) {
+            try {
+                Duration until = Duration.between(ZonedDateTime.now(),
+                        ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                return Math.max(0, until.toNanos());
+            } catch (DateTimeParseException invalid) {
+                return DEFAULT_RETRY_AFTER.toNanos();
+            }
+        }
+    }
+
+    private void finish(Waiter waiter) {
+        // si nunca obtuvo lugar queda marcado como cancelado y se descarta al drenar
+        if (waiter.state.compareAndSet(Waiter.WAITING, Waiter.CANCELLED)) {
+            return;
+        }
+        if (waiter.state.compareAndSet(Waiter.GRANTED, Waiter.RELEASED)) {
+            active.decrementAndGet();
+            drain();
+        }
+    }
+
+    private void drain() {
+        while (!pending.isEmpty()) {
+            if (System.nanoTime() - pausedUntil.get() < 0) {
+                return;
+            }
+            int current = active.get();
+            if (current >= getLimit()) {
+                return;
+            }
+            if (!active.compareAndSet(current, current + 1)) {
+                continue;
+            }
+            Waiter waiter = pending.poll();
+            if (waiter == null || !waiter.grant()) {
+                active.decrementAndGet();
+                continue;
+            }
+            queueTimer.record(System.nanoTime() - waiter.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static final class Waiter {
+        static final int WAITING = 0;
+        static final int GRANTED = 1;
+        static final int CANCELLED = 2;
+        static final int RELEASED = 3;
+
+        final AtomicInteger state = new AtomicInteger(WAITING);
+        final long enqueuedAt = System.nanoTime();
+        volatile MonoSink<Void> sink;
+        volatile boolean responded;
+
+        boolean grant() {
+            if (state.compareAndSet(WAITING, GRANTED)) {
+                sink.success();
+                return true;
+            }
+            return false;
+        }
+    }
+}
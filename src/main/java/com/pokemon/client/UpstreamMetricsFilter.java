@@ -0,0 +1,95 @@
+package com.pokemon.client;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Mide cada llamada a la api de pokemon, desde el envio hasta terminar de leer el cuerpo de la
+ * respuesta, agrupada por tipo de endpoint (pokemon, type, ability, species, evolution-chain) y
+ * resultado. Se registra despues del limitador de concurrencia, por lo que no incluye la espera
+ * en la cola.
+ */
+public class UpstreamMetricsFilter implements ExchangeFilterFunction {
+
+    // tipo de llamada segun el segmento del path de la api
+    private static final Map<String, String> KIND_BY_SEGMENT = Map.of(
+            "pokemon", "pokemon",
+            "type", "type",
+            "ability", "ability",
+            "pokemon-species", "species",
+            "evolution-chain", "evolution-chain");
+
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String kind = kindOf(request.url());
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .map(response -> response.mutate()
+                            .body(body -> body.doFinally(signal -> record(kind,
+                                    signal == SignalType.ON_COMPLETE ? outcomeOf(response.statusCode())
+                                            : signal == SignalType.CANCEL ? "CANCELLED" : "ERROR",
+                                    String.valueOf(response.statusCode().value()), start)))
+                            .build())
+                    .doOnError(ex -> record(kind, "ERROR", "IO_ERROR", start))
+                    .doOnCancel(() -> record(kind, "CANCELLED", "NONE", start));
+        });
+    }
+
+    /**
+     * @param uri url de la llamada
+     * @return tipo de llamada; las consultas sin id (por ejemplo la lista de pokemones) llevan el
+     *         sufijo "-list"
+     */
+    static String kindOf(URI uri) {
+        String[] segments = uri.getPath().split("/");
+        for (int i = segments.length - 1; i >= 0; i--) {
+            String kind = KIND_BY_SEGMENT.get(segments[i]);
+            if (kind != null) {
+                return i == segments.length - 1 ? kind + "-list" : kind;
+            }
+        }
+        return "other";
+    }
+
+    private static String outcomeOf(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    private void record(String kind, String outcome, String status, long start) {
+        Timer.builder("pokeapi.upstream.requests")
+                .description("Duracion de las llamadas a la api de pokemon, incluyendo la lectura de la respuesta")
+                .tag("kind", kind)
+                .tag("outcome", outcome)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,39 @@
+package com.pokemon.client;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import reactor.util.retry.Retry;
+
+/**
+ * Reintentos de las llamadas a la api de pokemon. Solo se reintentan los errores transitorios:
+ * respuestas 5xx y errores de conexion. Los 429 no se reintentan porque el limitador global ya
+ * pausa las llamadas segun Retry-After y reduce el limite; tampoco los demas 4xx, que no cambian
+ * al repetir la llamada, ni las llamadas rechazadas por el circuito o el bulkhead
+ * ({@link UpstreamUnavailableException}).
+ */
+public final class UpstreamRetry {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final Duration FIRST_BACKOFF = Duration.ofSeconds(2);
+
+    private UpstreamRetry() {
+    }
+
+    /**
+     * @return reintentos con backoff exponencial para los errores transitorios
+     */
+    public static Retry transientErrors() {
+        return Retry.backoff(MAX_ATTEMPTS, FIRST_BACKOFF).filter(UpstreamRetry::isTransient);
+    }
+
+    static boolean isTransient(Throwable ex) {
+        if (ex instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return ex instanceof WebClientRequestException || ex instanceof IOException;
+    }
+}
@@ -0,0 +1,26 @@
+package com.pokemon.client;
+
+/**
+ * Llamada a la api de pokemon rechazada sin enviarse, porque el circuito del tipo de endpoint
+ * esta abierto o porque se alcanzo el maximo de llamadas concurrentes de ese tipo
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final String kind;
+    private final String reason;
+
+    public UpstreamUnavailableException(String kind, String reason) {
+        super("La api de pokemon no esta disponible para " + kind + " (" + reason + ")");
+        this.kind = kind;
+        this.reason = reason;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
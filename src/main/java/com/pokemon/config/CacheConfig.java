@@ -0,0 +1,165 @@
+package com.pokemon.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.util.unit.DataSize;
+
+import com.pokemon.cache.CacheCodec;
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.cache.CacheExpiry;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.NoCacheStore;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.cache.RedisCacheStore;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeDetailBody;
+import com.pokemon.model.PokeEvolutionChainModel;
+import com.pokemon.model.PokeListPage;
+import com.pokemon.model.PokeTranslationModel;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${pokeapi.cache.near.max-entries:2000}")
+    private int nearMaxEntries;
+
+    @Value("${pokeapi.cache.near.ttl:10m}")
+    private Duration nearTtl;
+
+    @Value("${pokeapi.cache.translations.max-entries:10000}")
+    private int translationsMaxEntries;
+
+    @Value("${pokeapi.cache.evolution-chains.max-entries:1000}")
+    private int evolutionChainsMaxEntries;
+
+    @Value("${pokeapi.cache.evolution-chain-ids.max-entries:2000}")
+    private int evolutionChainIdsMaxEntries;
+
+    @Value("${pokeapi.cache.pokemon.ttl:1d}")
+    private Duration pokemonTtl;
+
+    @Value("${pokeapi.cache.pokemon.stale-ttl:7d}")
+    private Duration pokemonStaleTtl;
+
+    @Value("${pokeapi.cache.translations.ttl:7d}")
+    private Duration translationsTtl;
+
+    @Value("${pokeapi.cache.translations.stale-ttl:30d}")
+    private Duration translationsStaleTtl;
+
+    @Value("${pokeapi.cache.evolution-chains.ttl:7d}")
+    private Duration evolutionChainsTtl;
+
+    @Value("${pokeapi.cache.evolution-chains.stale-ttl:30d}")
+    private Duration evolutionChainsStaleTtl;
+
+    @Value("${pokeapi.cache.list-pages.max-size:8MB}")
+    private DataSize listPagesMaxSize;
+
+    @Value("${pokeapi.cache.list-pages.ttl:1m}")
+    private Duration listPagesTtl;
+
+    @Value("${pokeapi.cache.list-pages.stale-ttl:10m}")
+    private Duration listPagesStaleTtl;
+
+    @Value("${pokeapi.cache.detail-bodies.max-size:8MB}")
+    private DataSize detailBodiesMaxSize;
+
+    @Value("${pokeapi.cache.detail-bodies.ttl:10m}")
+    private Duration detailBodiesTtl;
+
+    @Value("${pokeapi.cache.detail-bodies.stale-ttl:1h}")
+    private Duration detailBodiesStaleTtl;
+
+    @Value("${pokeapi.cache.codec.format:SMILE}")
+    private CacheCodec.Format codecFormat;
+
+    @Value("${pokeapi.cache.codec.compression-threshold:512}")
+    private int codecCompressionThreshold;
+
+    /**
+     * Cache de textos por idioma de tipos, habilidades y especies, por url. Cada tabla tiene todos
+     * los idiomas y es compartida por todos los pokemones, por eso se mantiene tambien en memoria.
+     */
+    @Bean
+    public ReactiveCache<PokeTranslationModel> translationCache(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveCache<>("translationTables",
+                new RedisCacheStore<>("translationTables", codec(PokeTranslationModel.class), connectionFactory),
+                new NearCache<>(translationsMaxEntries, null),
+                new CacheExpiry(translationsTtl, translationsStaleTtl));
+    }
+
+    /**
+     * Cache de los datos de cada pokemon que no dependen del idioma, por id, con una cache local
+     * acotada delante de Redis. Las busquedas de varios pokemones leen Redis con un solo MGET
+     */
+    @Bean
+    public ReactiveCache<PokeCoreModel> pokemonCache(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveCache<>("pokemonCore",
+                new RedisCacheStore<>("pokemonCore", codec(PokeCoreModel.class), connectionFactory),
+                new NearCache<>(nearMaxEntries, nearTtl),
+                new CacheExpiry(pokemonTtl, pokemonStaleTtl));
+    }
+
+    /**
+     * Cache de cadenas evolutivas por id de cadena. Todos los pokemones de una misma cadena la
+     * comparten y cada una ocupa pocos bytes, por eso se mantiene tambien en memoria.
+     */
+    @Bean
+    public ReactiveCache<PokeEvolutionChainModel> evolutionChainCache(
+            ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveCache<>("evolutionChains",
+                new RedisCacheStore<>("evolutionChains", codec(PokeEvolutionChainModel.class), connectionFactory),
+                new NearCache<>(evolutionChainsMaxEntries, null),
+                new CacheExpiry(evolutionChainsTtl, evolutionChainsStaleTtl));
+    }
+
+    /**
+     * Cache del id de la cadena evolutiva de cada pokemon, por id de pokemon, para buscar la cadena
+     * en paralelo con el pokemon. Vive solo en la memoria de cada instancia, acotada por cantidad de
+     * entradas, y se limpia con la invalidacion de cache.
+     */
+    @Bean
+    public ReactiveCache<Integer> evolutionChainIdCache() {
+        return new ReactiveCache<>("evolutionChainIds",
+                new NoCacheStore<>(),
+                new NearCache<>(evolutionChainIdsMaxEntries, null));
+    }
+
+    /**
+     * Cache de paginas de la lista ya serializadas, por offset, tamaño e idioma. Vive solo en la
+     * memoria de cada instancia: se rearma rapido a partir de las demas caches, y se limpia junto
+     * con ellas al recibir la invalidacion de cache. Se acota por los bytes de las paginas, que
+     * varian con el tamaño pedido. Las paginas degradadas no se guardan.
+     */
+    @Bean
+    public ReactiveCache<PokeListPage> listPageCache() {
+        return new ReactiveCache<>("listPages",
+                new NoCacheStore<>(),
+                new NearCache<CacheEntry<PokeListPage>>(listPagesMaxSize.toBytes(), entry -> entry.value().body().length, null),
+                new CacheExpiry(listPagesTtl, listPagesStaleTtl),
+                page -> !page.degraded());
+    }
+
+    /**
+     * Cache del JSON de la respuesta de detalle, por id e idioma. Igual que las paginas de la
+     * lista vive solo en la memoria de cada instancia, se acota por los bytes guardados, se limpia
+     * con la invalidacion de cache y no guarda los detalles degradados.
+     */
+    @Bean
+    public ReactiveCache<PokeDetailBody> detailBodyCache() {
+        return new ReactiveCache<>("detailBodies",
+                new NoCacheStore<>(),
+                new NearCache<CacheEntry<PokeDetailBody>>(detailBodiesMaxSize.toBytes(), entry -> entry.value().body().length, null),
+                new CacheExpiry(detailBodiesTtl, detailBodiesStaleTtl),
+                body -> !body.degraded());
+    }
+
+    private <V> CacheCodec<V> codec(Class<V> type) {
+        return new CacheCodec<>(type, codecFormat, codecCompressionThreshold);
+    }
+}
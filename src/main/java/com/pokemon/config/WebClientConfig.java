@@ -2,34 +2,142 @@ package com.pokemon.config;
 
 import java.time.Duration;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.ExchangeStrategies;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.pokemon.client.ConnectionPoolMeterRegistrar;
+import com.pokemon.client.UpstreamCircuitBreaker;
+import com.pokemon.client.UpstreamConcurrencyLimiter;
+import com.pokemon.client.UpstreamMetricsFilter;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import io.netty.channel.ChannelOption;
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
 
 @Configuration
 public class WebClientConfig {
+
+    @Value("${pokeapi.fanout.global-concurrency:64}")
+    private int globalConcurrency;
+
+    @Value("${pokeapi.fanout.min-concurrency:4}")
+    private int minConcurrency;
+
+    @Value("${pokeapi.fanout.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    @Value("${pokeapi.fanout.max-retry-after:60s}")
+    private Duration maxRetryAfter;
+
+    @Value("${pokeapi.http.pool.max-connections:100}")
+    private int poolMaxConnections;
+
+    @Value("${pokeapi.http.pool.pending-acquire-max:256}")
+    private int poolPendingAcquireMax;
+
+    @Value("${pokeapi.http.pool.pending-acquire-timeout:10s}")
+    private Duration poolPendingAcquireTimeout;
+
+    @Value("${pokeapi.http.pool.max-idle-time:30s}")
+    private Duration poolMaxIdleTime;
+
+    @Value("${pokeapi.http.pool.max-life-time:5m}")
+    private Duration poolMaxLifeTime;
+
+    @Value("${pokeapi.http.pool.evict-interval:30s}")
+    private Duration poolEvictInterval;
+
+    @Value("${pokeapi.http.http2:true}")
+    private boolean http2;
+
+    @Value("${pokeapi.circuit-breaker.window-size:20}")
+    private int circuitBreakerWindowSize;
+
+    @Value("${pokeapi.circuit-breaker.failure-rate-threshold:0.5}")
+    private double circuitBreakerFailureRateThreshold;
+
+    @Value("${pokeapi.circuit-breaker.open-duration:30s}")
+    private Duration circuitBreakerOpenDuration;
+
+    @Value("${pokeapi.circuit-breaker.call-timeout:5s}")
+    private Duration circuitBreakerCallTimeout;
+
+    @Value("${pokeapi.bulkhead.max-concurrent:32}")
+    private int bulkheadMaxConcurrent;
+
+    @Value("${pokeapi.bulkhead.max-wait:5s}")
+    private Duration bulkheadMaxWait;
+
+    /**
+     * Pool de conexiones propio para la api de pokemon. Entrega primero la ultima conexion
+     * liberada (LIFO) para reutilizar las que siguen calientes y dejar que las demas expiren por
+     * inactividad; las conexiones se renuevan periodicamente por antiguedad.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider pokeApiConnectionProvider(MeterRegistry meterRegistry) {
+        return ConnectionProvider.builder("pokeapi")
+                .maxConnections(poolMaxConnections)
+                .pendingAcquireMaxCount(poolPendingAcquireMax)
+                .pendingAcquireTimeout(poolPendingAcquireTimeout)
+                .maxIdleTime(poolMaxIdleTime)
+                .maxLifeTime(poolMaxLifeTime)
+                .evictInBackground(poolEvictInterval)
+                .lifo()
+                .metrics(true, () -> new ConnectionPoolMeterRegistrar(meterRegistry))
+                .build();
+    }
+
+    /**
+     * Limite global de llamadas concurrentes a la api de pokemon, adaptado a su latencia y a los 429
+     */
+    @Bean
+    public UpstreamConcurrencyLimiter upstreamConcurrencyLimiter(MeterRegistry meterRegistry) {
+        return new UpstreamConcurrencyLimiter(minConcurrency, globalConcurrency, latencyTolerance, maxRetryAfter,
+                meterRegistry);
+    }
+
+    /**
+     * Circuito y maximo de llamadas concurrentes por tipo de endpoint de la api de pokemon, acotado
+     * a la mitad del limite global vigente
+     */
+    @Bean
+    public UpstreamCircuitBreaker upstreamCircuitBreaker(MeterRegistry meterRegistry,
+            UpstreamConcurrencyLimiter upstreamConcurrencyLimiter) {
+        return new UpstreamCircuitBreaker(circuitBreakerWindowSize, circuitBreakerFailureRateThreshold,
+                circuitBreakerOpenDuration, bulkheadMaxConcurrent, bulkheadMaxWait, circuitBreakerCallTimeout,
+                upstreamConcurrencyLimiter::getLimit, meterRegistry);
+    }
+
     @Bean
-    public WebClient webClient() {
-        HttpClient httpClient = HttpClient.create()
+    public WebClient webClient(MeterRegistry meterRegistry, ConnectionProvider pokeApiConnectionProvider,
+            UpstreamConcurrencyLimiter upstreamConcurrencyLimiter, UpstreamCircuitBreaker upstreamCircuitBreaker) {
+        HttpClient httpClient = HttpClient.create(pokeApiConnectionProvider)
+                // HTTP/2 se negocia por ALPN en https; en http plano se usa HTTP/1.1 con keep-alive
+                .protocol(http2 ? new HttpProtocol[] { HttpProtocol.H2, HttpProtocol.HTTP11 }
+                        : new HttpProtocol[] { HttpProtocol.HTTP11 })
+                .keepAlive(true)
                 .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10000) // 10 segundos timeout de conexión
-                .responseTimeout(Duration.ofSeconds(30)) // 30 segundos timeout de respuesta
-                .doOnConnected(conn -> 
-                    conn.addHandlerLast(new ReadTimeoutHandler(30)) // 30 segundos timeout de lectura
-                        .addHandlerLast(new WriteTimeoutHandler(30)) // 30 segundos timeout de escritura
-                );
+                .responseTimeout(Duration.ofSeconds(30)); // 30 segundos timeout de respuesta
 
         return WebClient.builder()
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // circuito y bulkhead por tipo de endpoint, antes del limite global para que una
+                // llamada que espera lugar en su tipo no retenga un lugar global
+                .filter(upstreamCircuitBreaker)
+                .filter(upstreamConcurrencyLimiter)
+                // timeout por llamada, sin contar la espera en la cola del limite
+                .filter(upstreamCircuitBreaker.callTimeout())
+                // tiempo y resultado de cada llamada, sin contar la espera en la cola del limite
+                .filter(new UpstreamMetricsFilter(meterRegistry))
                 .exchangeStrategies(ExchangeStrategies.builder()
                         .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(10 * 1024 * 1024))
                         .build())
                 .build();
     }
-} 
\ No newline at end of file
+}
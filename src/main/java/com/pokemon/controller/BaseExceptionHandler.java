@@ -1,10 +1,12 @@
 package com.pokemon.controller;
 
+import com.pokemon.client.UpstreamUnavailableException;
 import com.pokemon.util.CustomException;
 import com.pokemon.model.ErrorModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.server.ResponseStatusException;
 
 public abstract class BaseExceptionHandler {
     @ExceptionHandler(CustomException.class)
@@ -18,6 +20,30 @@ public abstract class BaseExceptionHandler {
         return ResponseEntity.status(ex.getStatusCode()).body(error);
     }
 
+    // errores propios de WebFlux con su estado http, por ejemplo parametros invalidos (ServerWebInputException)
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorModel> handleResponseStatusException(ResponseStatusException ex) {
+        ErrorModel error = new ErrorModel(
+            "error",
+            ex.getReason(),
+            ex.getStatusCode().value(),
+            ex.getMessage()
+        );
+        return ResponseEntity.status(ex.getStatusCode()).body(error);
+    }
+
+    // la api de pokemon no esta disponible y el dato no estaba cacheado: se responde al instante
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<ErrorModel> handleUpstreamUnavailableException(UpstreamUnavailableException ex) {
+        ErrorModel error = new ErrorModel(
+            "error",
+            "La api de pokemon no esta disponible, intente nuevamente en unos segundos",
+            HttpStatus.SERVICE_UNAVAILABLE.value(),
+            ex.getMessage()
+        );
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorModel> handleException(Exception ex) {
         ErrorModel error = new ErrorModel(
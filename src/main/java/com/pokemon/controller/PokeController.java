@@ -1,23 +1,38 @@
 package com.pokemon.controller;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import com.pokemon.model.PokeBatchRequestModel;
 import com.pokemon.model.PokeDetailModel;
 import com.pokemon.model.PokeListModel;
+import com.pokemon.service.PokeDetailBodyService;
+import com.pokemon.service.PokeListPageService;
 import com.pokemon.service.PokeService;
 import com.pokemon.util.CustomException;
+import com.pokemon.util.PokeETags;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
@@ -31,56 +46,117 @@ public class PokeController extends BaseExceptionHandler {
     @Value("${pokeapi.max-page-size:20}")
     private int maxPageSize;
 
+    @Value("${pokeapi.max-batch-size:50}")
+    private int maxBatchSize;
+
     @Value("${pokeapi.default-language:es}")
     private String defaultLanguage;
 
+    @Value("${pokeapi.http-cache.max-age:5m}")
+    private Duration httpCacheMaxAge;
+
+    @Value("${pokeapi.http-cache.stale-while-revalidate:1h}")
+    private Duration httpCacheStaleWhileRevalidate;
+
     // Lista de idiomas válidos según la pokeapi
-    private static final java.util.Set<String> VALID_LANGUAGES = java.util.Set.of(
+    public static final java.util.Set<String> VALID_LANGUAGES = java.util.Set.of(
         "ja-Hrkt", "roomaji", "ko", "zh-Hant", "fr", "de", "es", "it", "en", "cs", "ja", "zh-Hans", "pt-BR"
     );
 
     private final PokeService pokeService;
+    private final PokeListPageService pokeListPageService;
+    private final PokeDetailBodyService pokeDetailBodyService;
 
-    public PokeController(PokeService pokeService) {
+    public PokeController(PokeService pokeService, PokeListPageService pokeListPageService,
+            PokeDetailBodyService pokeDetailBodyService) {
         this.pokeService = pokeService;
+        this.pokeListPageService = pokeListPageService;
+        this.pokeDetailBodyService = pokeDetailBodyService;
     }
 
     @GetMapping("")
     @Operation(summary = "Obtener lista de Pokemon", description = "Retorna una lista paginada de pokemones")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Lista de pokemones obtenida exitosamente"),
+            @ApiResponse(responseCode = "200", description = "Lista de pokemones obtenida exitosamente",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PokeListModel.class))),
+            @ApiResponse(responseCode = "304", description = "La lista no cambió desde el ETag indicado en If-None-Match"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Mono<PokeListModel> getPokemonList(
+    public Mono<ResponseEntity<byte[]>> getPokemonList(
             @Parameter(description = "Número de página (base 0)", example = "0") @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
             @Parameter(description = "Tamaño de la página", example = "10") @RequestParam(name = "size", required = false) Integer size,
             @Parameter(description = "Idioma de la respuesta. Valores posibles: ja-Hrkt, roomaji, ko, zh-Hant, fr, de, es, it, en, cs, ja, zh-Hans, pt-BR", example = "es") @RequestParam(name = "language", required = false) String language) {
-        int effectiveSize = (size == null) ? pageSize : size;
-        if (effectiveSize > maxPageSize) {
-            throw new CustomException("El máximo valor del tamaño de la pagina es de " + maxPageSize, 400);
-        }
-        String lang = (language != null && !language.isBlank()) ? language : defaultLanguage;
-        if (!VALID_LANGUAGES.contains(lang)) {
-            throw new CustomException("Idioma no soportado. Valores permitidos: " + VALID_LANGUAGES, 400);
-        }
-        return pokeService.getPokemonList(page, effectiveSize, lang);
+        // la pagina ya viene serializada y se escribe tal cual
+        return pokeListPageService.getPage(page, resolvePageSize(size), resolveLanguage(language))
+                .map(listPage -> cacheable(listPage.etag(), listPage.degraded())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(listPage.body()));
+    }
+
+    @GetMapping(value = "/stream", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE })
+    @Operation(summary = "Obtener lista de Pokemon en streaming", description = "Retorna la lista paginada en formato NDJSON o SSE: primero un encabezado con recordCount y luego cada Pokemon apenas esta disponible")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Lista de pokemones emitida exitosamente"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor")
+    })
+    public Flux<Object> getPokemonListStream(
+            @Parameter(description = "Número de página (base 0)", example = "0") @RequestParam(name = "page", required = false, defaultValue = "0") Integer page,
+            @Parameter(description = "Tamaño de la página", example = "10") @RequestParam(name = "size", required = false) Integer size,
+            @Parameter(description = "Idioma de la respuesta. Valores posibles: ja-Hrkt, roomaji, ko, zh-Hant, fr, de, es, it, en, cs, ja, zh-Hans, pt-BR", example = "es") @RequestParam(name = "language", required = false) String language) {
+        return pokeService.getPokemonListStream(page, resolvePageSize(size), resolveLanguage(language));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Obtener detalle de varios Pokemon", description = "Retorna el detalle de varios pokemones en el orden pedido, sin repetidos. Los pokemones que no se encuentran no se incluyen")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Detalle de los pokemones obtenido exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Lista de ids vacía o con más elementos que el máximo permitido"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor"),
+            @ApiResponse(responseCode = "503", description = "La api de pokemon no está disponible para alguno de los pokemones pedidos")
+    })
+    public Mono<List<PokeDetailModel>> getPokemonBatch(
+            @Parameter(description = "Números de los Pokemon separados por coma", example = "1,4,7") @RequestParam(name = "ids", required = false) List<Integer> ids,
+            @Parameter(description = "Idioma de la respuesta. Valores posibles: ja-Hrkt, roomaji, ko, zh-Hant, fr, de, es, it, en, cs, ja, zh-Hans, pt-BR", example = "es") @RequestParam(name = "language", required = false) String language) {
+        return pokeService.getPokemonBatch(resolveBatchIds(ids), resolveLanguage(language));
+    }
+
+    @PostMapping("/batch")
+    @Operation(summary = "Obtener detalle de varios Pokemon (POST)", description = "Igual que GET /pokemon/batch, con los ids en el cuerpo del pedido para listas largas")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Detalle de los pokemones obtenido exitosamente"),
+            @ApiResponse(responseCode = "400", description = "Lista de ids vacía o con más elementos que el máximo permitido"),
+            @ApiResponse(responseCode = "500", description = "Error interno del servidor"),
+            @ApiResponse(responseCode = "503", description = "La api de pokemon no está disponible para alguno de los pokemones pedidos")
+    })
+    public Mono<List<PokeDetailModel>> postPokemonBatch(@RequestBody PokeBatchRequestModel request) {
+        return pokeService.getPokemonBatch(resolveBatchIds(request.getIds()), resolveLanguage(request.getLanguage()));
     }
 
     @GetMapping("/{id}")
     @Operation(summary = "Obtener detalle de Pokemon", description = "Retorna información detallada de un Pokemon específico")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Detalle del Pokemon obtenido exitosamente"),
+            @ApiResponse(responseCode = "200", description = "Detalle del Pokemon obtenido exitosamente",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, schema = @Schema(implementation = PokeDetailModel.class))),
+            @ApiResponse(responseCode = "304", description = "El detalle no cambió desde el ETag indicado en If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Pokemon no encontrado"),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor")
     })
-    public Mono<PokeDetailModel> getPokemonById(
+    public Mono<ResponseEntity<Object>> getPokemonById(
             @Parameter(description = "Número del Pokemon", example = "1") @PathVariable Integer id,
             @Parameter(description = "Idioma de la respuesta. Valores posibles: ja-Hrkt, roomaji, ko, zh-Hant, fr, de, es, it, en, cs, ja, zh-Hans, pt-BR", example = "es") @RequestParam(name = "language", required = false) String language) {
-        String lang = (language != null && !language.isBlank()) ? language : defaultLanguage;
-        if (!VALID_LANGUAGES.contains(lang)) {
-            throw new CustomException("Idioma no soportado. Valores permitidos: " + VALID_LANGUAGES, 400);
+        String resolvedLanguage = resolveLanguage(language);
+        if (!pokeDetailBodyService.isEnabled()) {
+            // se responde el modelo: si el ETag coincide WebFlux responde 304 sin serializarlo
+            return pokeService.getPokemonDetail(id, resolvedLanguage)
+                    .map(detail -> cacheable(PokeETags.of(detail), detail.isDegraded())
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .<Object>body(detail));
         }
-        return pokeService.getPokemonDetail(id, lang);
+        // el detalle ya viene serializado y se escribe tal cual
+        return pokeDetailBodyService.getDetail(id, resolvedLanguage)
+                .map(detail -> cacheable(detail.etag(), detail.degraded())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .<Object>body(detail.body()));
     }
 
     @GetMapping("/clear-cache")
@@ -88,8 +164,54 @@ public class PokeController extends BaseExceptionHandler {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Caché limpiada exitosamente")
     })
-    @CacheEvict(value = "pokemon", allEntries = true)
-    public String clearCache() {
-        return "Cache limpiado exitosamente";
+    public Mono<String> clearCache() {
+        return pokeService.clearCache()
+                .then(Mono.defer(pokeListPageService::clear))
+                .then(Mono.defer(pokeDetailBodyService::clear))
+                .thenReturn("Cache limpiado exitosamente");
+    }
+
+    /**
+     * Respuesta con ETag y Cache-Control. Si el ETag coincide con If-None-Match, WebFlux responde
+     * 304 sin escribir el cuerpo. El idioma viaja en la url, por lo que ya forma parte de la
+     * clave de las caches intermedias. Una respuesta degradada (armada sin la api disponible) se
+     * envia con no-store y sin ETag para que ni el cliente ni las caches intermedias la guarden.
+     */
+    private ResponseEntity.BodyBuilder cacheable(String etag, boolean degraded) {
+        if (degraded) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore());
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(httpCacheMaxAge)
+                        .cachePublic()
+                        .staleWhileRevalidate(httpCacheStaleWhileRevalidate));
+    }
+
+    private int resolvePageSize(Integer size) {
+        int effectiveSize = (size == null) ? pageSize : size;
+        if (effectiveSize > maxPageSize) {
+            throw new CustomException("El máximo valor del tamaño de la pagina es de " + maxPageSize, 400);
+        }
+        return effectiveSize;
+    }
+
+    private List<Integer> resolveBatchIds(List<Integer> ids) {
+        List<Integer> validIds = ids == null ? List.of() : ids.stream().filter(Objects::nonNull).toList();
+        if (validIds.isEmpty()) {
+            throw new CustomException("Debe indicar al menos un número de Pokemon", 400);
+        }
+        if (validIds.size() > maxBatchSize) {
+            throw new CustomException("El máximo de Pokemon por pedido es de " + maxBatchSize, 400);
+        }
+        return validIds;
+    }
+
+    private String resolveLanguage(String language) {
+        String lang = (language != null && !language.isBlank()) ? language : defaultLanguage;
+        if (!VALID_LANGUAGES.contains(lang)) {
+            throw new CustomException("Idioma no soportado. Valores permitidos: " + VALID_LANGUAGES, 400);
+        }
+        return lang;
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,7 @@ package com.pokemon.controller;
 
 import java.time.Duration;
 
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,14 +12,15 @@ import org.springframework.web.bind.annotation.RestController;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/test")
 public class RedisTestController {
 
-    private final RedisTemplate<String, String> redisTemplate;
+    private final ReactiveStringRedisTemplate redisTemplate;
 
-    public RedisTestController(RedisTemplate<String, String> redisTemplate) {
+    public RedisTestController(ReactiveStringRedisTemplate redisTemplate) {
         this.redisTemplate = redisTemplate;
     }
 
@@ -28,15 +29,14 @@ public class RedisTestController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "conexión exitosa")
     })
-    public ResponseEntity<String> testRedis() {
-        try {
-            redisTemplate.opsForValue().set("testKey", "ok", Duration.ofSeconds(10));
-            String value = redisTemplate.opsForValue().get("testKey");
-            return ResponseEntity.ok("Conexión a Redis exitosa. Valor leído: " + value);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Fallo al conectar con Redis: " + e.getMessage());
-        }
+    public Mono<ResponseEntity<String>> testRedis() {
+        return Mono.defer(() -> redisTemplate.opsForValue().set("testKey", "ok", Duration.ofSeconds(10))
+                        .then(redisTemplate.opsForValue().get("testKey")))
+                .map(value -> ResponseEntity.ok("Conexión a Redis exitosa. Valor leído: " + value))
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body("Fallo al conectar con Redis: " + e.getMessage()));
+                });
     }
 }
@@ -2,6 +2,8 @@ package com.pokemon.model;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -26,4 +28,8 @@ public class PokeBasicModel {
     private List<String> typeList;
     @Schema(description = "Lista de habilidades del Pokemon", example = "[\"overgrow\", \"chlorophyll\"]")
     private List<String> abilitiesList;
+    // textos reemplazados porque la api no estaba disponible, no se cachea ni se envia
+    @JsonIgnore
+    @Schema(hidden = true)
+    private boolean degraded;
 }
\ No newline at end of file
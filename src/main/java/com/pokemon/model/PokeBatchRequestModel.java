@@ -0,0 +1,23 @@
+package com.pokemon.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Schema(description = "Modelo para pedir el detalle de varios Pokemon en un solo pedido")
+public class PokeBatchRequestModel {
+
+    @Schema(description = "Números de los Pokemon, el detalle se devuelve en este orden", example = "[1, 4, 7]")
+    private List<Integer> ids;
+    @Schema(description = "Idioma de la respuesta. Valores posibles: ja-Hrkt, roomaji, ko, zh-Hant, fr, de, es, it, en, cs, ja, zh-Hans, pt-BR", example = "es")
+    private String language;
+
+}
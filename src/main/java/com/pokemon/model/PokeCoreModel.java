@@ -0,0 +1,37 @@
+package com.pokemon.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Schema(description = "Datos de un Pokemon que no dependen del idioma, se cachean una sola vez por pokemon y los textos se resuelven aparte por idioma")
+public class PokeCoreModel {
+    @Schema(description = "Nro del Pokemon", example = "1")
+    private Integer id;
+    @Schema(description = "Nombre del Pokemon", example = "bulbasaur")
+    private String name;
+    @Schema(description = "URL de la imagen del Pokemon para la lista", example = "https://.../bulbasaur.png")
+    private String imageList;
+    @Schema(description = "URL de la imagen de detalle del Pokemon", example = "https://.../bulbasaur-detail.png")
+    private String imageDetail;
+    @Schema(description = "Peso del Pokemon en kilogramos", example = "69.2")
+    private Double weight;
+    @Schema(description = "Altura del Pokemon en metros", example = "7.5")
+    private Double height;
+    @Schema(description = "URL de cada tipo en la api de pokemon", example = "[\"https://pokeapi.co/api/v2/type/12/\"]")
+    private List<String> typeUrls;
+    @Schema(description = "URL de cada habilidad en la api de pokemon", example = "[\"https://pokeapi.co/api/v2/ability/65/\"]")
+    private List<String> abilityUrls;
+    @Schema(description = "URL de la especie en la api de pokemon", example = "https://pokeapi.co/api/v2/pokemon-species/1/")
+    private String speciesUrl;
+    @Schema(description = "URL de la cadena evolutiva en la api de pokemon", example = "https://pokeapi.co/api/v2/evolution-chain/1/")
+    private String evolutionChainUrl;
+}
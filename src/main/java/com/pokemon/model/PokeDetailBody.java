@@ -0,0 +1,11 @@
+package com.pokemon.model;
+
+/**
+ * Detalle de un pokemon ya serializado, listo para escribirse en la respuesta
+ *
+ * @param body     JSON de {@link PokeDetailModel}
+ * @param etag     ETag del detalle
+ * @param degraded true si se armo sin la api disponible; no se cachea
+ */
+public record PokeDetailBody(byte[] body, String etag, boolean degraded) {
+}
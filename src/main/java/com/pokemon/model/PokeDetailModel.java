@@ -2,6 +2,8 @@ package com.pokemon.model;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -19,5 +21,9 @@ public class PokeDetailModel {
     private PokeCacheModel data;
     @Schema(description = "Lista de listas con la cadena evolutiva del Pokemon, los items de las listas usan el modelo basico para optimizar el renderizado")
     private List<List<PokeBasicModel>> evolutionList;
+    // datos o cadena evolutiva incompletos porque la api no estaba disponible, no se cachea ni se envia
+    @JsonIgnore
+    @Schema(hidden = true)
+    private boolean degraded;
 
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.pokemon.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Schema(description = "Cadena evolutiva cacheada, solo con los ids de los pokemones de cada etapa")
+public class PokeEvolutionChainModel {
+
+    @Schema(description = "Id de la cadena evolutiva", example = "1")
+    private Integer chainId;
+    @Schema(description = "Etapas de la cadena, cada una con los ids de sus pokemones", example = "[[1],[2],[3]]")
+    private List<List<Integer>> stages;
+
+}
@@ -0,0 +1,17 @@
+package com.pokemon.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Schema(description = "Primer elemento de la lista en streaming, con la cantidad total de registros para que el front pueda calcular las paginas antes de recibir los pokemones")
+public class PokeListHeaderModel {
+    @Schema(description = "Cantidad total de registros", example = "151")
+    private Integer recordCount;
+}
@@ -0,0 +1,12 @@
+package com.pokemon.model;
+
+/**
+ * Pagina de la lista de pokemones ya serializada, lista para escribirse en la respuesta
+ *
+ * @param body     JSON de {@link PokeListModel}
+ * @param etag     ETag de la pagina
+ * @param degraded true si le faltan pokemones o textos porque la api no estaba disponible; no se
+ *                 cachea
+ */
+public record PokeListPage(byte[] body, String etag, boolean degraded) {
+}
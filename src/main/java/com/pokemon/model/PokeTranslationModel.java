@@ -0,0 +1,27 @@
+package com.pokemon.model;
+
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.SuperBuilder;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+@Schema(description = "Tabla de textos por idioma de un tipo, una habilidad o una especie")
+public class PokeTranslationModel {
+    @Schema(description = "Texto de cada idioma", example = "{\"es\": \"Planta\", \"en\": \"Grass\"}")
+    private Map<String, String> texts;
+
+    /**
+     * @param language idioma buscado
+     * @return texto en el idioma pedido, null si no existe
+     */
+    public String getText(String language) {
+        return texts != null ? texts.get(language) : null;
+    }
+}
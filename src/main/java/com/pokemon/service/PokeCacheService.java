@@ -1,238 +1,393 @@
 package com.pokemon.service;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.cache.CacheInvalidationBus;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.client.UpstreamUnavailableException;
 import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeCoreModel;
 import com.pokemon.model.PokeSpecieModel;
-import com.pokemon.util.PokeUtils;
+import com.pokemon.model.PokeTranslationModel;
+import com.pokemon.util.JsonBodyReader;
+import com.pokemon.util.PokeJsonExtractor;
 
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 @Slf4j
 @Service
 public class PokeCacheService {
         private final WebClient webClient;
+        private final ReactiveCache<PokeTranslationModel> translationCache;
+        private final ReactiveCache<PokeCoreModel> pokemonCache;
+        private final CacheInvalidationBus cacheInvalidationBus;
+        private final PokedexSnapshotService snapshotService;
 
         @Value("${pokeapi.url}")
         private String pokeApiUrl;
         @Value("${pokeapi.image-not-available}")
         private String imageNotAvailableUrl;
+        // tamaño maximo de una respuesta de la api
+        @Value("${pokeapi.client.max-response-size:10MB}")
+        private DataSize maxResponseSize = DataSize.ofMegabytes(10);
 
-        public PokeCacheService(WebClient webClient) {
+        public PokeCacheService(WebClient webClient, ReactiveCache<PokeTranslationModel> translationCache,
+                        ReactiveCache<PokeCoreModel> pokemonCache, CacheInvalidationBus cacheInvalidationBus,
+                        PokedexSnapshotService snapshotService) {
                 this.webClient = webClient;
+                this.translationCache = translationCache;
+                this.pokemonCache = pokemonCache;
+                this.cacheInvalidationBus = cacheInvalidationBus;
+                this.snapshotService = snapshotService;
         }
 
         /**
-         * metodo que obtiene toda la informacion necesaria del pokemon a traves de la
-         * api de pokemon y luego es cacheada
+         * metodo que obtiene toda la informacion necesaria del pokemon en el idioma
+         * pedido. Combina los datos del pokemon, que no dependen del idioma y se cachean
+         * una sola vez por id, con las tablas de textos por idioma de sus tipos,
+         * habilidades y especie, de forma que cambiar de idioma no vuelve a consultar
+         * /pokemon/{id}
          * 
          * @param id       nro de pokemon
          * @param language lenguage con el cual se obtienen informacion de la api de
          *                 pokemon
          * @return devuelve los datos detallados del pokemon
          */
-        @Cacheable(value = "pokemon")
         public Mono<PokeCacheModel> getDataPoke(Integer id, String language) {
-                log.info("🔍 Buscando Pokemon con ID: {} - Llamada REAL a la API", id);
+                return getCore(id).flatMap(core -> localize(core, language));
+        }
 
-                String urlDataPoke = pokeApiUrl + "/" + id;
+        /**
+         * Igual que {@link #getDataPoke(Integer, String)} para varios pokemones. Los datos que no
+         * dependen del idioma se buscan en la cache con una sola lectura y solo los faltantes se
+         * consultan a la api, con concurrencia acotada. Los pokemones que no se pudieron obtener no
+         * se incluyen en el resultado
+         * 
+         * @param ids         nros de pokemon
+         * @param language    lenguage con el cual se obtienen informacion de la api de
+         *                    pokemon
+         * @param concurrency cantidad maxima de consultas en paralelo a la api
+         * @return datos detallados de los pokemones, por id
+         */
+        public Mono<Map<Integer, PokeCacheModel>> getDataPokes(Collection<Integer> ids, String language,
+                        int concurrency) {
+                return getDataPokes(ids, language, concurrency, ex -> true);
+        }
 
-                Mono<Map> responseMono = webClient.get()
-                                .uri(urlDataPoke)
-                                .retrieve()
-                                .bodyToMono(Map.class);
+        /**
+         * Igual que {@link #getDataPokes(Collection, String, int)}, omitiendo solo los pokemones
+         * cuya consulta falla con un error aceptado; con cualquier otro error falla el resultado
+         * completo
+         * 
+         * @param ids         nros de pokemon
+         * @param language    lenguage con el cual se obtienen informacion de la api de
+         *                    pokemon
+         * @param concurrency cantidad maxima de consultas en paralelo a la api
+         * @param omitted     errores con los que se omite el pokemon, por ejemplo que no exista
+         * @return datos detallados de los pokemones, por id
+         */
+        public Mono<Map<Integer, PokeCacheModel>> getDataPokes(Collection<Integer> ids, String language,
+                        int concurrency, Predicate<Throwable> omitted) {
+                return getCores(ids, concurrency, omitted)
+                                .flatMapMany(cores -> Flux.fromIterable(cores.values()))
+                                .flatMap(core -> localize(core, language))
+                                .collectMap(PokeCacheModel::getId);
+        }
+
+        /**
+         * Arma el pokemon en el idioma pedido a partir de sus datos sin traducir y las tablas de
+         * textos de sus tipos, habilidades y especie. Si la api no esta disponible para una tabla
+         * que no esta cacheada se devuelve el pokemon sin ese texto, en lugar de fallar, marcado
+         * como degradado para que no se cachee la respuesta armada con el
+         */
+        private Mono<PokeCacheModel> localize(PokeCoreModel core, String language) {
+                return Mono.defer(() -> localize(core, language, new AtomicBoolean()));
+        }
+
+        private Mono<PokeCacheModel> localize(PokeCoreModel core, String language, AtomicBoolean degraded) {
+                // tipos
+                List<Mono<String>> typeMonos = core.getTypeUrls().stream()
+                                .map(url -> url != null
+                                                ? getTypeTranslations(url)
+                                                                .onErrorResume(UpstreamUnavailableException.class,
+                                                                                ex -> unavailable(degraded))
+                                                                .mapNotNull(table -> table.getText(language))
+                                                                .defaultIfEmpty("Desconocido")
+                                                : Mono.just("Desconocido"))
+                                .collect(Collectors.toList());
+
+                // habilidades
+                List<Mono<String>> abilityMonos = core.getAbilityUrls().stream()
+                                .map(url -> url != null
+                                                ? getAbilityTranslations(url)
+                                                                .onErrorResume(UpstreamUnavailableException.class,
+                                                                                ex -> unavailable(degraded))
+                                                                .mapNotNull(table -> table.getText(language))
+                                                                .defaultIfEmpty("Desconocido")
+                                                : Mono.just("Desconocido"))
+                                .collect(Collectors.toList());
+
+                // especie
+                Mono<Optional<String>> flavorTextMono = core.getSpeciesUrl() != null
+                                ? getSpecieTranslations(core.getSpeciesUrl())
+                                                .map(table -> Optional.ofNullable(table.getText(language)))
+                                                .onErrorResume(UpstreamUnavailableException.class,
+                                                                ex -> unavailable(degraded)
+                                                                                .thenReturn(Optional.<String>empty()))
+                                : Mono.just(Optional.empty());
+
+                return Mono.zip(
+                                Mono.zip(typeMonos,
+                                                arr -> Arrays.stream(arr).map(String.class::cast)
+                                                                .collect(Collectors.toList())),
+                                Mono.zip(abilityMonos,
+                                                arr -> Arrays.stream(arr).map(String.class::cast)
+                                                                .collect(Collectors.toList())),
+                                flavorTextMono).map(tuple -> PokeCacheModel.builder()
+                                                .id(core.getId())
+                                                .name(core.getName())
+                                                .imageList(core.getImageList())
+                                                .imageDetail(core.getImageDetail())
+                                                .typeList(tuple.getT1())
+                                                .abilitiesList(tuple.getT2())
+                                                .species(PokeSpecieModel.builder()
+                                                                .evolutionChainUrl(core.getEvolutionChainUrl())
+                                                                .flavorText(tuple.getT3().orElse(null))
+                                                                .build())
+                                                .weight(core.getWeight())
+                                                .height(core.getHeight())
+                                                .degraded(degraded.get())
+                                                .build());
+        }
+
+        private static <T> Mono<T> unavailable(AtomicBoolean degraded) {
+                degraded.set(true);
+                return Mono.empty();
+        }
+
+        /**
+         * Obtiene los datos del pokemon que no dependen del idioma, desde la cache, el
+         * snapshot del Pokedex o la api de pokemon. Los pedidos concurrentes del mismo
+         * pokemon comparten una unica consulta a la api, y cuando la entrada esta vencida
+         * se refresca en segundo plano desde la api
+         * 
+         * @param id nro de pokemon
+         * @return datos del pokemon sin textos traducidos
+         */
+        public Mono<PokeCoreModel> getCore(Integer id) {
+                return pokemonCache.getDated(String.valueOf(id), "pokemon", () -> loadCore(id), () -> fetchCore(id));
+        }
+
+        /**
+         * Igual que {@link #getCore(Integer)} para varios pokemones, con una sola lectura de la
+         * cache para todos los ids
+         * 
+         * @param ids         nros de pokemon
+         * @param concurrency cantidad maxima de consultas en paralelo a la api
+         * @return datos de los pokemones encontrados, por id
+         */
+        public Mono<Map<Integer, PokeCoreModel>> getCores(Collection<Integer> ids, int concurrency) {
+                return getCores(ids, concurrency, ex -> true);
+        }
+
+        private Mono<Map<Integer, PokeCoreModel>> getCores(Collection<Integer> ids, int concurrency,
+                        Predicate<Throwable> omitted) {
+                List<String> keys = ids.stream().map(String::valueOf).toList();
+                return pokemonCache.getAllDated(keys, "pokemon", key -> loadCore(Integer.valueOf(key)),
+                                key -> fetchCore(Integer.valueOf(key)), omitted, concurrency)
+                                .map(cores -> cores.entrySet().stream()
+                                                .collect(Collectors.toMap(entry -> Integer.valueOf(entry.getKey()),
+                                                                Map.Entry::getValue)));
+        }
+
+        // los datos del snapshot se guardan con la fecha en que se armo, para que venzan segun su edad
+        private Mono<CacheEntry<PokeCoreModel>> loadCore(Integer id) {
+                return snapshotService.getCore(id)
+                                .map(core -> Mono.just(new CacheEntry<>(core, snapshotService.getBuiltAt())))
+                                .orElseGet(() -> fetchCore(id)
+                                                .map(core -> new CacheEntry<>(core, System.currentTimeMillis())));
+        }
+
+        /**
+         * @param url endpoint del tipo en la api de pokemon
+         * @return nombre del tipo en cada idioma
+         */
+        public Mono<PokeTranslationModel> getTypeTranslations(String url) {
+                return getTranslations(url, "type", () -> fetchTypeTranslations(url));
+        }
 
-                return responseMono.flatMap(response -> {
-                        if (response == null)
-                                return Mono.empty();
+        /**
+         * Consulta a la api los nombres del tipo, sin pasar por la cache ni el snapshot
+         * 
+         * @param url endpoint del tipo en la api de pokemon
+         * @return nombre del tipo en cada idioma
+         */
+        public Mono<Map<String, String>> fetchTypeTranslations(String url) {
+                return retrieveJson(url, Set.of("names"),
+                                parser -> PokeJsonExtractor.extractTranslations(parser, "names", "name"));
+        }
 
-                        String name = (String) response.get("name");
+        /**
+         * @param url endpoint de la habilidad en la api de pokemon
+         * @return texto descriptivo de la habilidad en cada idioma
+         */
+        public Mono<PokeTranslationModel> getAbilityTranslations(String url) {
+                return getTranslations(url, "ability", () -> fetchAbilityTranslations(url));
+        }
+
+        /**
+         * Consulta a la api los textos de la habilidad, sin pasar por la cache ni el snapshot
+         * 
+         * @param url endpoint de la habilidad en la api de pokemon
+         * @return texto descriptivo de la habilidad en cada idioma
+         */
+        public Mono<Map<String, String>> fetchAbilityTranslations(String url) {
+                return retrieveJson(url, Set.of("flavor_text_entries"),
+                                parser -> PokeJsonExtractor.extractTranslations(parser, "flavor_text_entries",
+                                                "flavor_text"));
+        }
+
+        /**
+         * @param url endpoint de la especie en la api de pokemon
+         * @return texto descriptivo de la especie en cada idioma
+         */
+        public Mono<PokeTranslationModel> getSpecieTranslations(String url) {
+                return getTranslations(url, "species", () -> retrieveJson(url, PokeJsonExtractor.SPECIE_FIELDS,
+                                PokeJsonExtractor::extractSpecie)
+                                .map(PokeJsonExtractor.SpeciePayload::flavorTexts));
+        }
 
-                        Integer weightRaw = (Integer) response.get("weight");
+        private Mono<PokeCoreModel> fetchCore(Integer id) {
+                // los textos de la especie se aprovechan para la cache de traducciones
+                return fetchCoreWithSpecieTexts(id).flatMap(fetched -> {
+                        PokeCoreModel core = fetched.getT1();
+                        return core.getSpeciesUrl() == null ? Mono.just(core)
+                                        : getTranslations(core.getSpeciesUrl(), "species",
+                                                        () -> Mono.just(fetched.getT2()))
+                                                        .thenReturn(core);
+                });
+        }
+
+        /**
+         * Consulta a la api los datos del pokemon y de su especie, sin pasar por la cache ni el
+         * snapshot
+         * 
+         * @param id nro de pokemon
+         * @return datos del pokemon sin textos traducidos y textos descriptivos de su especie por
+         *         idioma (vacio si no tiene especie)
+         */
+        public Mono<Tuple2<PokeCoreModel, Map<String, String>>> fetchCoreWithSpecieTexts(Integer id) {
+                log.debug("🔍 Buscando Pokemon con ID: {} - Llamada REAL a la API", id);
+
+                String urlDataPoke = pokeApiUrl + "/" + id;
+
+                return retrieveJson(urlDataPoke, PokeJsonExtractor.POKEMON_FIELDS,
+                                PokeJsonExtractor::extractPokemon).flatMap(response -> {
                         // se divide por 10 para convertir el peso en kilos
-                        Double weight = weightRaw != null ? weightRaw / 10.0 : null;
+                        Double weight = response.weight() != null ? response.weight() / 10.0 : null;
 
-                        Integer heightRaw = (Integer) response.get("height");
                         // se divide por 10 para convertir la altura en metros
-                        Double height = heightRaw != null ? heightRaw / 10.0 : null;
+                        Double height = response.height() != null ? response.height() / 10.0 : null;
 
                         // Imagen principal
-                        String tmpImageList = null;
-                        String tmpImageDetail = null;
-
-                        Map<String, Object> sprites = (Map<String, Object>) response.get("sprites");
-                        if (sprites != null) {
-                                tmpImageList = (String) sprites.get("front_default");
-                                Map<String, Object> other = (Map<String, Object>) sprites.get("other");
-                                if (other != null) {
-                                        Map<String, Object> dreamWorld = (Map<String, Object>) other.get("dream_world");
-                                        if (dreamWorld != null) {
-                                                tmpImageDetail = (String) dreamWorld.get("front_default");
-                                        }
-                                }
-                        }
-                        final String imageList = (tmpImageList == null || tmpImageList.isEmpty()) ? imageNotAvailableUrl
+                        String tmpImageList = response.imageList();
+                        String tmpImageDetail = response.imageDetail();
+                        String imageList = (tmpImageList == null || tmpImageList.isEmpty()) ? imageNotAvailableUrl
                                         : tmpImageList;
-                        final String imageDetail = (tmpImageDetail == null || tmpImageDetail.isEmpty()) ? imageList
+                        String imageDetail = (tmpImageDetail == null || tmpImageDetail.isEmpty()) ? imageList
                                         : tmpImageDetail;
 
-                        // tipos
-                        List<Map<String, Object>> types = (List<Map<String, Object>>) response.get("types");
-                        // try{System.out.println("@@@types" + new
-                        // ObjectMapper().writeValueAsString(types));}catch(Exception ex){}
-                        if (types == null)
-                                types = List.of();
-                        List<Mono<String>> typeMonos = types.stream()
-                                        .map(type -> {
-                                                Map<String, Object> typeObj = (Map<String, Object>) type.get("type");
-                                                if (typeObj == null)
-                                                        return Mono.just("Desconocido");
-                                                String url = (String) typeObj.get("url");
-                                                return url != null
-                                                                ? traduceItemAsync(url, language, "names", "name")
-                                                                                .defaultIfEmpty("Desconocido")
-                                                                : Mono.just("Desconocido");
-                                        })
-                                        .collect(Collectors.toList());
-
-                        // habilidades
-                        List<Map<String, Object>> abilities = (List<Map<String, Object>>) response.get("abilities");
-                        // try{System.out.println("@@@abilities" + new
-                        // ObjectMapper().writeValueAsString(abilities));}catch(Exception ex){}
-                        if (abilities == null)
-                                abilities = List.of();
-                        List<Mono<String>> abilityMonos = abilities.stream()
-                                        .map(ability -> {
-                                                Map<String, Object> abObj = (Map<String, Object>) ability
-                                                                .get("ability");
-                                                if (abObj == null)
-                                                        return Mono.just("Desconocido");
-                                                String url = (String) abObj.get("url");
-                                                return url != null
-                                                                ? traduceItemAsync(url, language, "flavor_text_entries",
-                                                                                "flavor_text")
-                                                                                .defaultIfEmpty("Desconocido")
-                                                                : Mono.just("Desconocido");
-                                        })
-                                        .collect(Collectors.toList());
-
-                        // especie
-                        Map<String, Object> speciesMap = (Map<String, Object>) response.get("species");
-                        String speciesUrl = null;
-                        if (speciesMap != null) {
-                                speciesUrl = (String) speciesMap.get("url");
+                        PokeCoreModel.PokeCoreModelBuilder<?, ?> core = PokeCoreModel.builder()
+                                        .id(id)
+                                        .name(response.name())
+                                        .imageList(imageList)
+                                        .imageDetail(imageDetail)
+                                        .weight(weight)
+                                        .height(height)
+                                        .typeUrls(response.typeUrls())
+                                        .abilityUrls(response.abilityUrls())
+                                        .speciesUrl(response.speciesUrl());
+                        if (response.speciesUrl() == null) {
+                                return Mono.just(Tuples.of(core.build(), Map.<String, String>of()));
                         }
-                        Mono<PokeSpecieModel> speciesMono = getSpecie(speciesUrl, language);
-
-                        return Mono.zip(
-                                        Mono.zip(typeMonos,
-                                                        arr -> Arrays.stream(arr).map(String.class::cast)
-                                                                        .collect(Collectors.toList())),
-                                        Mono.zip(abilityMonos,
-                                                        arr -> Arrays.stream(arr).map(String.class::cast)
-                                                                        .collect(Collectors.toList())),
-                                        speciesMono).map(tuple -> {
-                                                List<String> typeList = (List<String>) tuple.getT1();
-                                                List<String> abilitiesList = (List<String>) tuple.getT2();
-                                                PokeSpecieModel species = tuple.getT3();
-                                                return PokeCacheModel.builder()
-                                                                .id(id)
-                                                                .name(name)
-                                                                .imageList(imageList)
-                                                                .imageDetail(imageDetail)
-                                                                .typeList(typeList)
-                                                                .abilitiesList(abilitiesList)
-                                                                .species(species)
-                                                                .weight(weight)
-                                                                .height(height)
-                                                                .build();
-                                        });
+
+                        // la especie se consulta una sola vez: la url de la cadena evolutiva queda en
+                        // el pokemon y se devuelven tambien sus textos por idioma
+                        return retrieveJson(response.speciesUrl(), PokeJsonExtractor.SPECIE_FIELDS,
+                                        PokeJsonExtractor::extractSpecie)
+                                        .map(species -> Tuples.of(
+                                                        core.evolutionChainUrl(species.evolutionChainUrl()).build(),
+                                                        species.flavorTexts()));
                 });
         }
 
         /**
-         * Obtiene el primer valor desde una coleccion del resultado de un endpoint.
-         * Usado para obtener los valores para armar la data detallada del pokemon
+         * Obtiene la tabla de textos por idioma de un tipo, habilidad o especie. Se cachea
+         * por url y es compartida por todos los pokemones y todos los idiomas. Las tablas
+         * vencidas se refrescan con el loader, sin pasar por el snapshot
          * 
-         * @param url            endpoint que ejecuta para luego obtener la informacion
-         *                       deseada
-         * @param language       lenguage con el cual se obtienen el valor deseado
-         * @param collectionName nombre de la coleccion de donde se sacara el valor
-         * @param propertyName   nombre de la propiedad que contiene el valor a obtener
-         * @return valor en el lenguage requerido
+         * @param url    endpoint que ejecuta para luego obtener la informacion deseada
+         * @param kind   tipo de dato (type, ability o species), usado en las metricas
+         * @param loader consulta a la api que arma la tabla cuando no esta cacheada
+         * @return textos por idioma
          */
-        private Mono<String> traduceItemAsync(String url, String language, String collectionName, String propertyName) {
-                return webClient.get()
-                                .uri(url)
-                                .retrieve()
-                                .bodyToMono(Map.class)
-                                .map(response -> {
-                                        System.out.println("traduceItemAsync response: " + response);
-                                        if (response == null)
-                                                return "Desconocido";
-                                        List<Map<String, Object>> collectionList = (List<Map<String, Object>>) response
-                                                        .get(collectionName);
-                                        if (collectionList != null) {
-                                                String result = collectionList.stream()
-                                                                .filter(entry -> {
-                                                                        Map<String, Object> languageMap = (Map<String, Object>) entry
-                                                                                        .get("language");
-                                                                        return languageMap != null && language.equals(
-                                                                                        languageMap.get("name"));
-                                                                })
-                                                                .map(entry -> (String) entry.get(propertyName))
-                                                                .filter(val -> val != null && !val.isEmpty())
-                                                                .findFirst()
-                                                                .orElse("Desconocido");
-                                                System.out.println("traduceItemAsync result: " + result);
-                                                return result;
-                                        }
-                                        System.out.println("traduceItemAsync result: Desconocido");
-                                        return "Desconocido";
-                                });
+        private Mono<PokeTranslationModel> getTranslations(String url, String kind,
+                        Supplier<Mono<Map<String, String>>> loader) {
+                Supplier<Mono<PokeTranslationModel>> fetch = () -> loader.get()
+                                .map(texts -> PokeTranslationModel.builder()
+                                                .texts(texts)
+                                                .build());
+                return translationCache.getDated(url, kind, () -> snapshotService.getTranslations(url)
+                                .map(table -> Mono.just(new CacheEntry<>(table, snapshotService.getBuiltAt())))
+                                .orElseGet(() -> fetch.get()
+                                                .map(table -> new CacheEntry<>(table, System.currentTimeMillis()))),
+                                fetch);
         }
 
         /**
-         * Obtiene la data de la especie del pokemon
-         * 
-         * @param url      endpoint de la api para obtener la informacion
-         * @param language lenguage con el cual se obtienen el valor deseado
-         * @return datos de la especie del pokemon
+         * Limpia la cache de pokemones y la de traducciones (Redis y la memoria local de
+         * todas las instancias)
+         */
+        public Mono<Void> clearCache() {
+                return Mono.when(pokemonCache.clear(), translationCache.clear())
+                                .then(cacheInvalidationBus.publish());
+        }
+
+        /**
+         * Ejecuta un GET a la api de pokemon y extrae del cuerpo solo los campos necesarios. El
+         * JSON se lee token a token a medida que llegan los buffers, que se liberan uno por uno;
+         * solo se conservan los campos del objeto raiz que usa el extractor
+         *
+         * @param url       endpoint de la api
+         * @param fields    campos del objeto raiz que usa el extractor
+         * @param extractor funcion que extrae los campos del cuerpo de la respuesta
+         * @return valor extraido
          */
-        private Mono<PokeSpecieModel> getSpecie(String url, String language) {
-                return webClient.get()
+        private <T> Mono<T> retrieveJson(String url, Set<String> fields, JsonBodyReader.Extractor<T> extractor) {
+                return JsonBodyReader.read(webClient.get()
                                 .uri(url)
                                 .retrieve()
-                                .bodyToMono(Map.class)
-                                .map(response -> {
-                                        String evolutionChainUrl = PokeUtils.getStringFromNestedMap(response,
-                                                        "evolution_chain.url");
-                                        List<Map<String, Object>> collectionList = (List<Map<String, Object>>) response
-                                                        .get("flavor_text_entries");
-                                        String flavorText = collectionList.stream()
-                                                        .filter(entry -> {
-                                                                Map<String, Object> languageMap = (Map<String, Object>) entry
-                                                                                .get("language");
-                                                                return languageMap != null && language
-                                                                                .equals(languageMap.get("name"));
-                                                        })
-                                                        .map(entry -> (String) entry.get("flavor_text"))
-                                                        .findFirst()
-                                                        .orElse(null);
-                                        return PokeSpecieModel.builder()
-                                                        .evolutionChainUrl(evolutionChainUrl)
-                                                        .flavorText(flavorText)
-                                                        .build();
-                                });
+                                .bodyToFlux(DataBuffer.class), fields, maxResponseSize.toBytes(), extractor);
         }
 
 }
\ No newline at end of file
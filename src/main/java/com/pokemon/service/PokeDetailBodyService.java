@@ -0,0 +1,78 @@
+package com.pokemon.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.model.PokeDetailBody;
+import com.pokemon.model.PokeDetailModel;
+import com.pokemon.util.CustomException;
+import com.pokemon.util.PokeETags;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Detalle de un pokemon serializado una sola vez por (id, idioma). Con
+ * pokeapi.cache.detail-bodies.enabled el JSON de la respuesta se guarda en una cache local y los
+ * pedidos siguientes lo escriben tal cual, sin armar el modelo ni pasar por Jackson. Sin la
+ * opcion el controller responde el modelo, para que un pedido con el mismo ETag se responda 304
+ * sin serializarlo. Los detalles degradados no se cachean.
+ */
+@Service
+public class PokeDetailBodyService {
+
+    @Value("${pokeapi.cache.detail-bodies.enabled:false}")
+    private boolean enabled;
+
+    private final PokeService pokeService;
+    private final ReactiveCache<PokeDetailBody> detailBodyCache;
+    private final ObjectWriter writer;
+
+    public PokeDetailBodyService(PokeService pokeService, ReactiveCache<PokeDetailBody> detailBodyCache,
+            ObjectMapper objectMapper) {
+        this.pokeService = pokeService;
+        this.detailBodyCache = detailBodyCache;
+        this.writer = objectMapper.writerFor(PokeDetailModel.class);
+    }
+
+    /**
+     * @return true si el JSON del detalle se guarda en la cache local
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @param id       nro de pokemon
+     * @param language idioma de los textos
+     * @return detalle serializado con su ETag
+     */
+    public Mono<PokeDetailBody> getDetail(Integer id, String language) {
+        Mono<PokeDetailBody> load = Mono.defer(() -> pokeService.getPokemonDetail(id, language))
+                .map(this::serialize);
+        if (!enabled) {
+            return load;
+        }
+        return detailBodyCache.get(id + ":" + language, "detail-body", () -> load);
+    }
+
+    /**
+     * Limpia los detalles cacheados de esta instancia; las demas instancias los limpian al recibir
+     * la invalidacion de cache
+     */
+    public Mono<Void> clear() {
+        return detailBodyCache.clear();
+    }
+
+    private PokeDetailBody serialize(PokeDetailModel detail) {
+        try {
+            return new PokeDetailBody(writer.writeValueAsBytes(detail), PokeETags.of(detail),
+                    detail.isDegraded());
+        } catch (JsonProcessingException ex) {
+            throw new CustomException("No se pudo serializar el detalle del pokemon", ex, 500);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.pokemon.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.pokemon.client.UpstreamRetry;
+import com.pokemon.util.PokeUtils;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+/**
+ * Mantiene en memoria el indice completo de la lista de pokemones (ids en el orden de la api y
+ * cantidad total). Se obtiene una sola vez con un unico pedido a la api y se refresca
+ * periodicamente en segundo plano, de forma que cada pagina es un corte del arreglo de ids.
+ */
+@Slf4j
+@Service
+public class PokeIndexService {
+
+    /**
+     * Indice de la lista de pokemones
+     *
+     * @param ids   ids de los pokemones en el orden de la api
+     * @param count cantidad total de registros informada por la api
+     */
+    public record PokeIndex(int[] ids, int count) {
+
+        /**
+         * @param offset posicion del primer pokemon de la pagina
+         * @param limit  tamaño de la pagina
+         * @return ids de la pagina, vacio si la pagina esta fuera del indice
+         */
+        public int[] slice(int offset, int limit) {
+            int from = Math.min(Math.max(offset, 0), ids.length);
+            int to = Math.min(from + Math.max(limit, 0), ids.length);
+            return Arrays.copyOfRange(ids, from, to);
+        }
+    }
+
+    private final WebClient webClient;
+    private final PokedexSnapshotService snapshotService;
+
+    @Value("${pokeapi.url}")
+    private String pokeApiUrl;
+
+    @Value("${pokeapi.list-index.limit:100000}")
+    private int indexLimit;
+
+    private volatile PokeIndex index;
+    // carga inicial en curso, compartida por los pedidos que llegan antes de tener el indice
+    private final AtomicReference<Mono<PokeIndex>> loading = new AtomicReference<>();
+
+    public PokeIndexService(WebClient webClient, PokedexSnapshotService snapshotService) {
+        this.webClient = webClient;
+        this.snapshotService = snapshotService;
+    }
+
+    /**
+     * Obtiene el indice de la lista. Si todavia no se cargo se toma del snapshot del Pokedex o se
+     * consulta la api una unica vez
+     *
+     * @return indice de la lista de pokemones
+     */
+    public Mono<PokeIndex> getIndex() {
+        PokeIndex current = index;
+        if (current != null) {
+            return Mono.just(current);
+        }
+        PokeIndex fromSnapshot = snapshotService.getListIndex().orElse(null);
+        if (fromSnapshot != null) {
+            index = fromSnapshot;
+            return Mono.just(fromSnapshot);
+        }
+        Mono<PokeIndex> pending = loading.get();
+        if (pending != null) {
+            return pending;
+        }
+        Mono<PokeIndex> created = fetchIndex()
+                .doOnNext(loaded -> index = loaded)
+                .doFinally(signal -> loading.set(null))
+                .cache();
+        return loading.compareAndSet(null, created) ? created : Mono.defer(this::getIndex);
+    }
+
+    /**
+     * Refresca el indice en segundo plano. Si la api falla se sigue usando el indice anterior
+     */
+    @Scheduled(initialDelayString = "${pokeapi.list-index.refresh:PT1H}", fixedDelayString = "${pokeapi.list-index.refresh:PT1H}")
+    public void refresh() {
+        fetchIndex().subscribe(
+                loaded -> index = loaded,
+                error -> log.warn("⚠️ No se pudo refrescar el indice de pokemones: {}", error.getMessage()));
+    }
+
+    private Mono<PokeIndex> fetchIndex() {
+        String url = pokeApiUrl + "?offset=0&limit=" + indexLimit;
+        return webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .retryWhen(UpstreamRetry.transientErrors())
+                .doOnError(error -> log.error("❌ Error obteniendo el indice de Pokemon: {}", error.getMessage()))
+                .map(response -> {
+                    Integer count = (Integer) response.get("count");
+                    List<Map<String, String>> results = (List<Map<String, String>>) response.get("results");
+                    // se filtra resultados nulos o sin URL
+                    int[] ids = results == null ? new int[0] : results.stream()
+                            .filter(p -> p != null && p.get("url") != null && !p.get("url").isEmpty())
+                            .mapToInt(p -> PokeUtils.getIdFromUrl(p.get("url")))
+                            .toArray();
+                    log.info("🔗 Indice de Pokemon cargado: {} ids, {} registros", ids.length, count);
+                    return new PokeIndex(ids, count != null ? count : ids.length);
+                });
+    }
+}
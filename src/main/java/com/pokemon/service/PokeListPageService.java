@@ -0,0 +1,74 @@
+package com.pokemon.service;
+
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeListModel;
+import com.pokemon.model.PokeListPage;
+import com.pokemon.util.CustomException;
+import com.pokemon.util.PokeETags;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Cache de paginas de la lista de pokemones ya serializadas, por (offset, tamaño, idioma). Los
+ * pedidos iguales y simultaneos comparten una unica consulta, y una pagina cacheada se responde
+ * con sus bytes sin volver a armar ni serializar el modelo. Las paginas degradadas (a las que les
+ * faltan pokemones o textos porque la api no estaba disponible) se devuelven pero no se cachean.
+ */
+@Service
+public class PokeListPageService {
+
+    private final PokeService pokeService;
+    private final ReactiveCache<PokeListPage> listPageCache;
+    private final ObjectWriter writer;
+
+    public PokeListPageService(PokeService pokeService, ReactiveCache<PokeListPage> listPageCache,
+            ObjectMapper objectMapper) {
+        this.pokeService = pokeService;
+        this.listPageCache = listPageCache;
+        this.writer = objectMapper.writerFor(PokeListModel.class);
+    }
+
+    /**
+     * @param page     nro de pagina
+     * @param pageSize tamaño de la pagina
+     * @param language idioma de los textos
+     * @return pagina serializada con su ETag
+     */
+    public Mono<PokeListPage> getPage(Integer page, int pageSize, String language) {
+        int offset = (page != null ? page : 0) * pageSize;
+        String key = offset + ":" + pageSize + ":" + language;
+        return listPageCache.get(key, "list-page", () -> pokeService.getPokemonList(page, pageSize, language)
+                .map(list -> serialize(list, isDegraded(list, offset, pageSize))));
+    }
+
+    /**
+     * Limpia las paginas cacheadas de esta instancia; las demas instancias las limpian al recibir
+     * la invalidacion de cache
+     */
+    public Mono<Void> clear() {
+        return listPageCache.clear();
+    }
+
+    private PokeListPage serialize(PokeListModel list, boolean degraded) {
+        try {
+            return new PokeListPage(writer.writeValueAsBytes(list), PokeETags.of(list), degraded);
+        } catch (JsonProcessingException ex) {
+            throw new CustomException("No se pudo serializar la lista de pokemones", ex, 500);
+        }
+    }
+
+    private static boolean isDegraded(PokeListModel list, int offset, int pageSize) {
+        if (list.getList() == null) {
+            return true;
+        }
+        int expected = list.getRecordCount() == null ? pageSize
+                : Math.max(0, Math.min(pageSize, list.getRecordCount() - offset));
+        return list.getList().size() < expected || list.getList().stream().anyMatch(PokeBasicModel::isDegraded);
+    }
+}
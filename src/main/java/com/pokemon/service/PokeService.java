@@ -1,200 +1,352 @@
 package com.pokemon.service;
 
-import java.time.Duration;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.client.UpstreamRetry;
+import com.pokemon.client.UpstreamUnavailableException;
 import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeCacheModel;
 import com.pokemon.model.PokeDetailModel;
+import com.pokemon.model.PokeEvolutionChainModel;
+import com.pokemon.model.PokeListHeaderModel;
 import com.pokemon.model.PokeListModel;
 import com.pokemon.model.PokeMapper;
+import com.pokemon.util.JsonBodyReader;
+import com.pokemon.util.PokeJsonExtractor;
 import com.pokemon.util.PokeUtils;
 
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 @Slf4j
 @Service
 public class PokeService {
     private final WebClient webClient;
     private final PokeCacheService pokeCacheService;
+    private final PokedexSnapshotService snapshotService;
+    private final PokeIndexService pokeIndexService;
+    private final ReactiveCache<PokeEvolutionChainModel> evolutionChainCache;
+    // id de la cadena evolutiva de cada pokemon, por id de pokemon
+    private final ReactiveCache<Integer> evolutionChainIdCache;
 
-    @Value("${pokeapi.url}")
-    private String pokeApiUrl;
+    @Value("${pokeapi.fanout.per-request-concurrency:5}")
+    private int perRequestConcurrency = 5;
 
-    public PokeService(WebClient webClient, PokeCacheService pokeCacheService) {
+    // tamaño maximo de una respuesta de la api
+    @Value("${pokeapi.client.max-response-size:10MB}")
+    private DataSize maxResponseSize = DataSize.ofMegabytes(10);
+
+    public PokeService(WebClient webClient, PokeCacheService pokeCacheService,
+            PokedexSnapshotService snapshotService, PokeIndexService pokeIndexService,
+            ReactiveCache<PokeEvolutionChainModel> evolutionChainCache, ReactiveCache<Integer> evolutionChainIdCache) {
         this.webClient = webClient;
         this.pokeCacheService = pokeCacheService;
+        this.snapshotService = snapshotService;
+        this.pokeIndexService = pokeIndexService;
+        this.evolutionChainCache = evolutionChainCache;
+        this.evolutionChainIdCache = evolutionChainIdCache;
     }
 
     /**
-     * Utilizado para obtener la lista paginada de pokemones
+     * Utilizado para obtener la lista paginada de pokemones. La pagina se arma cortando el indice
+     * de ids que se mantiene en memoria, sin consultar la api de pokemon en cada pedido. Los pokemones
+     * de la pagina se buscan en la cache con una sola lectura, solo los faltantes se consultan a la
+     * api con concurrencia acotada, y se devuelven en el orden del Pokedex. Se omiten los pokemones
+     * que la api no encuentra o que no se pudieron consultar por no estar disponible (la pagina
+     * queda incompleta y no se cachea); cualquier otro error hace fallar el pedido
      * @param page nro de pagina
      * @param pageSize tamaño de la pagina
      * @param language lenguage con el cual se obtienen informacion de la api de pokemon
      * @return lista de pokemones con su cantidad total, para que el front pueda hacer el calculo de paginas totales
      */
     public Mono<PokeListModel> getPokemonList(Integer page, Integer pageSize, String language) {
-        log.info("📄 Obteniendo lista de Pokemon - Página: {}, Tamaño: {}", page, pageSize);
+        log.debug("📄 Obteniendo lista de Pokemon - Página: {}, Tamaño: {}", page, pageSize);
 
         int limit = pageSize;
         int offset = (page != null ? page : 0) * limit;
-        String url = pokeApiUrl + "?offset=" + offset + "&limit=" + limit;
-
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .retryWhen(reactor.util.retry.Retry.backoff(3, Duration.ofSeconds(2))
-                        .filter(throwable -> throwable instanceof WebClientResponseException ||
-                                throwable instanceof java.net.SocketException))
-                .doOnError(error -> log.error("❌ Error obteniendo lista de Pokemon: {}", error.getMessage()))
-                .flatMap(response -> {
-                    Integer count = (Integer) response.get("count");
-                    List<Map<String, String>> results = (List<Map<String, String>>) response.get("results");
-
-                    // se filtra resultados nulos o sin URL
-                    List<Map<String, String>> filteredResults = results == null ? List.of() : results.stream()
-                        .filter(p -> p != null && p.get("url") != null && !p.get("url").isEmpty())
-                        .collect(Collectors.toList());
-
-                    log.info("🔗 URLs de Pokemon válidas: {}",
-                            filteredResults.stream().map(p -> p.get("url")).collect(Collectors.toList()));
-
-                    if (filteredResults.isEmpty()) {
+
+        return pokeIndexService.getIndex()
+                .flatMap(index -> {
+                    int[] ids = index.slice(offset, limit);
+                    log.debug("🔗 Ids de Pokemon de la página: {}", Arrays.toString(ids));
+
+                    if (ids.length == 0) {
                         return Mono.just(PokeListModel.builder()
-                                .recordCount(count)
+                                .recordCount(index.count())
                                 .list(List.of())
                                 .build());
                     }
 
-                    return Flux.fromIterable(filteredResults)
-                            .flatMap(pokemon -> pokeCacheService.getDataPoke(PokeUtils.getIdFromUrl(pokemon.get("url")),
-                                    language))
-                            .filter(poke -> poke != null)
-                            .map(PokeMapper.INSTANCE::toBasic)
-                            .collectList()
-                            .map(list -> PokeListModel.builder()
-                                    .recordCount(count)
-                                    .list(list)
+                    // todos los pokemones de la pagina se buscan en la cache con una sola lectura
+                    return pokeCacheService.getDataPokes(Arrays.stream(ids).boxed().toList(), language,
+                                    perRequestConcurrency, PokeService::isOmittedFromList)
+                            .map(pokes -> PokeListModel.builder()
+                                    .recordCount(index.count())
+                                    .list(Arrays.stream(ids)
+                                            .mapToObj(pokes::get)
+                                            .filter(Objects::nonNull)
+                                            .map(PokeMapper.INSTANCE::toBasic)
+                                            .toList())
                                     .build()
                             );
                 });
     }
 
+    /**
+     * Version en streaming de la lista paginada. Emite primero el encabezado con la cantidad total
+     * de registros y luego cada pokemon apenas se resuelve, sin esperar al resto de la pagina
+     * @param page nro de pagina
+     * @param pageSize tamaño de la pagina
+     * @param language lenguage con el cual se obtienen informacion de la api de pokemon
+     * @return encabezado ({@link PokeListHeaderModel}) seguido de los pokemones ({@link PokeBasicModel})
+     */
+    public Flux<Object> getPokemonListStream(Integer page, Integer pageSize, String language) {
+        log.debug("📄 Obteniendo lista de Pokemon en streaming - Página: {}, Tamaño: {}", page, pageSize);
+
+        int limit = pageSize;
+        int offset = (page != null ? page : 0) * limit;
+
+        return pokeIndexService.getIndex()
+                .flatMapMany(index -> Flux.<Object>concat(
+                        Mono.just(PokeListHeaderModel.builder().recordCount(index.count()).build()),
+                        Flux.fromStream(Arrays.stream(index.slice(offset, limit)).boxed())
+                                .flatMap(id -> pokeCacheService.getDataPoke(id, language)
+                                        .onErrorResume(UpstreamUnavailableException.class, ex -> Mono.empty()),
+                                        perRequestConcurrency)
+                                .map(PokeMapper.INSTANCE::toBasic)));
+    }
+
     /**
      * Utilizado para obtener la informacion detallada del pokemon. La primera vez consume las apis de pokemon para obtener todos los datos necesarios y luego 
      * carga el modelo detallado y lo guarda en cache. Si ya esta en cache lo usa evitando el consumo de las apis.
+     * Si la api no esta disponible para la cadena evolutiva o alguno de sus pokemones se devuelve
+     * el detalle con la parte de la cadena que este cacheada, marcado como degradado para que no
+     * se cachee la respuesta armada con el.
      * @param id nro de pokemon
      * @param language idioma con el cual se obtienen la informacion desde la api de pokemon
      * @return modelo con la informacion detallada del pokemon
      */
     public Mono<PokeDetailModel> getPokemonDetail(Integer id, String language) {
-        log.info("📄 Obteniendo detalle del Pokemon - id: {}", id);
-        return pokeCacheService.getDataPoke(id, language)
-                .flatMap(pokeCacheModel -> getEvolutionChain(pokeCacheModel.getSpecies().getEvolutionChainUrl(),
-                        language)
-                        .map(evolutionChain -> PokeDetailModel.builder()
-                                .data(pokeCacheModel)
-                                .evolutionList(evolutionChain)
-                                .build()));
+        return Mono.defer(() -> getPokemonDetail(id, language, new AtomicBoolean()));
+    }
+
+    private Mono<PokeDetailModel> getPokemonDetail(Integer id, String language, AtomicBoolean degraded) {
+        log.debug("📄 Obteniendo detalle del Pokemon - id: {}", id);
+        Mono<PokeCacheModel> dataPoke = pokeCacheService.getDataPoke(id, language).cache();
+        Mono<String> chainUrl = dataPoke.map(poke -> poke.getSpecies().getEvolutionChainUrl());
+        // si el id de la cadena ya es conocido se busca en paralelo con el pokemon, sin esperar la url de la especie
+        Mono<List<List<Integer>>> stages = evolutionChainIdCache.get(String.valueOf(id), "evolution-chain-id",
+                        () -> chainUrl.map(PokeUtils::getIdFromUrl))
+                .flatMap(chainId -> getEvolutionStages(chainId, chainUrl));
+        return Mono.zip(dataPoke, stages.flatMap(chain -> getEvolutionChain(chain, language, degraded))
+                        .onErrorResume(UpstreamUnavailableException.class, ex -> {
+                            degraded.set(true);
+                            return Mono.just(List.<List<PokeBasicModel>>of());
+                        }))
+                .map(tuple -> PokeDetailModel.builder()
+                        .data(tuple.getT1())
+                        .evolutionList(tuple.getT2())
+                        .degraded(degraded.get() || tuple.getT1().isDegraded() || tuple.getT2().stream()
+                                .flatMap(List::stream)
+                                .anyMatch(PokeBasicModel::isDegraded))
+                        .build());
+    }
+
+    /**
+     * Obtiene el detalle de varios pokemones en un solo pedido. Los pokemones se buscan en la
+     * cache con una sola lectura y solo los faltantes se consultan a la api; cada cadena evolutiva
+     * se obtiene una sola vez aunque la compartan varios pokemones del pedido y sus integrantes
+     * tambien se buscan con una sola lectura. Los pokemones que no existen se omiten; si la api
+     * no esta disponible para alguno de los pedidos el pedido completo falla, para no confundir
+     * la falta de servicio con un pokemon inexistente. Si no esta disponible para una cadena
+     * evolutiva o alguno de sus integrantes, el detalle se devuelve con la parte de la cadena que
+     * se pudo obtener, marcado como degradado
+     * @param ids nros de pokemon, en el orden en que se devuelven
+     * @param language idioma con el cual se obtienen la informacion desde la api de pokemon
+     * @return detalle de los pokemones encontrados, en el orden pedido y sin repetidos
+     */
+    public Mono<List<PokeDetailModel>> getPokemonBatch(List<Integer> ids, String language) {
+        log.debug("📄 Obteniendo detalle de {} Pokemon", ids.size());
+        List<Integer> distinctIds = ids.stream().distinct().toList();
+        return pokeCacheService.getDataPokes(distinctIds, language, perRequestConcurrency, PokeService::isNotFound)
+                .flatMap(pokes -> Flux.fromIterable(pokes.values())
+                        .map(poke -> poke.getSpecies().getEvolutionChainUrl())
+                        .filter(Objects::nonNull)
+                        .distinct()
+                        .flatMap(url -> getEvolutionStages(url)
+                                .map(stages -> Tuples.of(url, stages))
+                                .onErrorResume(ex -> ex instanceof UpstreamUnavailableException || isNotFound(ex), ex -> {
+                                    log.warn("⚠️ Cadena evolutiva {} omitida del pedido: {}", url, ex.getMessage());
+                                    return Mono.empty();
+                                }), perRequestConcurrency)
+                        .collectMap(Tuple2::getT1, Tuple2::getT2)
+                        .flatMap(chains -> {
+                            // integrantes de las cadenas que no estaban entre los pokemones pedidos
+                            List<Integer> members = chains.values().stream()
+                                    .flatMap(List::stream)
+                                    .flatMap(List::stream)
+                                    .filter(id -> !pokes.containsKey(id))
+                                    .distinct()
+                                    .toList();
+                            Mono<Map<Integer, PokeCacheModel>> memberPokes = members.isEmpty()
+                                    ? Mono.just(Map.of())
+                                    : pokeCacheService.getDataPokes(members, language, perRequestConcurrency);
+                            return memberPokes.map(others -> {
+                                Map<Integer, PokeCacheModel> all = new HashMap<>(others);
+                                all.putAll(pokes);
+                                return distinctIds.stream()
+                                        .filter(pokes::containsKey)
+                                        .map(id -> {
+                                            PokeCacheModel poke = pokes.get(id);
+                                            String chainUrl = poke.getSpecies().getEvolutionChainUrl();
+                                            List<List<Integer>> stages = chains.get(chainUrl);
+                                            List<List<PokeBasicModel>> evolutionList = stages != null
+                                                    ? toEvolutionList(stages, all)
+                                                    : List.of();
+                                            return PokeDetailModel.builder()
+                                                    .data(poke)
+                                                    .evolutionList(evolutionList)
+                                                    .degraded(poke.isDegraded()
+                                                            || (chainUrl != null && stages == null)
+                                                            || (stages != null && size(evolutionList) < size(stages))
+                                                            || evolutionList.stream().flatMap(List::stream)
+                                                                    .anyMatch(PokeBasicModel::isDegraded))
+                                                    .build();
+                                        })
+                                        .toList();
+                            });
+                        }));
+    }
+
+    // la api respondio que el pokemon no existe; las consultas a la api usan retrieve(), que
+    // informa un 404 como WebClientResponseException.NotFound
+    private static boolean isNotFound(Throwable ex) {
+        return ex instanceof WebClientResponseException.NotFound;
+    }
+
+    // pokemones que se omiten de una pagina de la lista en lugar de hacerla fallar
+    private static boolean isOmittedFromList(Throwable ex) {
+        return isNotFound(ex) || ex instanceof UpstreamUnavailableException;
+    }
+
+    private static int size(List<? extends List<?>> stages) {
+        return stages.stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Limpia la cache de pokemones, sus traducciones y las cadenas evolutivas
+     */
+    public Mono<Void> clearCache() {
+        return evolutionChainCache.clear()
+                .then(Mono.defer(evolutionChainIdCache::clear))
+                .then(Mono.defer(pokeCacheService::clearCache));
     }
 
     /**
      * obtiene las evoluciones de un pokemon
-     * @param url url con la cual se obtiene informacion de la api pokemon sobre la evolucion del pokemon
+     * @param stages etapas de la cadena evolutiva con los ids de los pokemones
      * @param language idioma con el cual se obtienen la informacion desde la api de pokemon 
+     * @param degraded se marca si se omite algun pokemon porque la api no esta disponible
      * @return lista de pokemon de acuerdo a la data obtenida de la evolucion
      */
-    private Mono<List<List<PokeBasicModel>>> getEvolutionChain(String url, String language) {
-        return webClient.get()
-                .uri(url)
-                .retrieve()
-                .bodyToMono(Map.class)
-                .retryWhen(reactor.util.retry.Retry.backoff(3, Duration.ofSeconds(2))
-                        .filter(throwable -> throwable instanceof WebClientResponseException ||
-                                throwable instanceof java.net.SocketException))
-                .doOnError(error -> log.error("❌ Error obteniendo cadena de evolución: {}", error.getMessage()))
-                .flatMap(response -> {
-                    Map<String, Object> chainMap = (Map<String, Object>) response.get("chain");
-                    String speciesUrl = PokeUtils.getStringFromNestedMap(chainMap, "species.url");
-                    Mono<List<PokeBasicModel>> first = pokeCacheService
-                            .getDataPoke(PokeUtils.getIdFromUrl(speciesUrl), language)
-                            .map(poke -> List.of(PokeMapper.INSTANCE.toBasic(poke)));
-
-                    List<Map<String, Object>> evolvesToList = (List<Map<String, Object>>) chainMap.get("evolves_to");
-
-                    // Recursivo para toda la cadena de evolución
-                    return getEvolutionChainRecursive(evolvesToList, language)
-                            .flatMap(rest -> first.map(f -> {
-                                rest.add(0, f);
-                                return rest;
-                            }));
-                });
+    private Mono<List<List<PokeBasicModel>>> getEvolutionChain(List<List<Integer>> stages, String language,
+            AtomicBoolean degraded) {
+        return Flux.fromIterable(stages)
+                .concatMap(stage -> Flux.fromIterable(stage)
+                        .flatMapSequential(id -> pokeCacheService.getDataPoke(id, language)
+                                        .onErrorResume(UpstreamUnavailableException.class, ex -> {
+                                            degraded.set(true);
+                                            return Mono.empty();
+                                        }),
+                                perRequestConcurrency)
+                        .map(PokeMapper.INSTANCE::toBasic)
+                        .collectList())
+                .collectList();
     }
 
     /**
-     * Metodo recursivo con el cual se parsea la informacion de las evoluciones
-     * @param evolvesToList lista de evoluciones 
-     * @param language idioma con el cual se obtienen la informacion desde la api de pokemon 
-     * @return lista de pokemon de la evolucion
+     * Arma la cadena evolutiva con pokemones ya obtenidos
+     * @param stages etapas de la cadena evolutiva con los ids de los pokemones
+     * @param pokes pokemones por id, los que no estan se omiten
+     * @return lista de etapas con el modelo basico de cada pokemon
+     */
+    private List<List<PokeBasicModel>> toEvolutionList(List<List<Integer>> stages, Map<Integer, PokeCacheModel> pokes) {
+        return stages.stream()
+                .map(stage -> stage.stream()
+                        .map(pokes::get)
+                        .filter(Objects::nonNull)
+                        .map(PokeMapper.INSTANCE::toBasic)
+                        .toList())
+                .toList();
+    }
+
+    /**
+     * Obtiene las etapas de una cadena evolutiva como ids de pokemon
+     * @param url url de la cadena evolutiva en la api de pokemon
+     * @return lista de etapas, cada una con los ids de los pokemones de esa etapa
      */
-    private Mono<List<List<PokeBasicModel>>> getEvolutionChainRecursive(List<Map<String, Object>> evolvesToList,
-            String language) {
-        if (evolvesToList == null || evolvesToList.isEmpty()) {
-            return Mono.just(new ArrayList<>());
-        }
-
-        if (evolvesToList.size() == 1) {
-            List<Mono<List<PokeBasicModel>>> monos = new ArrayList<>();
-            Map<String, Object> evolvesToMap = evolvesToList.get(0);
-            String speciesUrl = PokeUtils.getStringFromNestedMap(evolvesToMap, "species.url");
-            monos.add(pokeCacheService.getDataPoke(PokeUtils.getIdFromUrl(speciesUrl), language)
-                    .map(poke -> List.of(PokeMapper.INSTANCE.toBasic(poke))));
-
-            return Flux.concat(monos)
-                    .collectList()
-                    .flatMap(list -> {
-                        List<Map<String, Object>> nextEvolves = (List<Map<String, Object>>) evolvesToMap
-                                .get("evolves_to");
-                        if (nextEvolves != null && !nextEvolves.isEmpty()) {
-                            return getEvolutionChainRecursive(nextEvolves, language)
-                                    .map(rest -> {
-                                        list.addAll(rest);
-                                        return list;
-                                    });
-                        } else {
-                            return Mono.just(list);
-                        }
-                    });
-        } else {
-            // si hay más de un elemento, iterar todos los items
-            List<Mono<List<PokeBasicModel>>> monos = new ArrayList<>();
-            List<Mono<PokeBasicModel>> pokeMonos = new ArrayList<>();
-
-            for (Map<String, Object> evolvesToMap : evolvesToList) {
-                String speciesUrl = PokeUtils.getStringFromNestedMap(evolvesToMap, "species.url");
-                pokeMonos.add(pokeCacheService.getDataPoke(PokeUtils.getIdFromUrl(speciesUrl), language)
-                        .map(poke -> PokeMapper.INSTANCE.toBasic(poke)));
-            }
-
-            // se agrupa todos los PokeBasicModel en una sola lista
-            return Flux.concat(pokeMonos)
-                    .collectList()
-                    .map(pokeList -> {
-                        monos.add(Mono.just(pokeList));
-                        return monos;
-                    })
-                    .flatMap(monosList -> Flux.concat(monosList).collectList());
-        }
-    }
-
-}
\ No newline at end of file
+    public Mono<List<List<Integer>>> getEvolutionStages(String url) {
+        return getEvolutionStages(PokeUtils.getIdFromUrl(url), Mono.just(url));
+    }
+
+    /**
+     * Obtiene las etapas de una cadena evolutiva desde la cache por id de cadena. Si no esta
+     * cacheada usa el snapshot del Pokedex o consulta la api de pokemon; cuando esta vencida se
+     * refresca siempre desde la api
+     * @param chainId id de la cadena evolutiva
+     * @param url url de la cadena, solo se resuelve si hay que consultar la api
+     * @return lista de etapas, cada una con los ids de los pokemones de esa etapa
+     */
+    private Mono<List<List<Integer>>> getEvolutionStages(Integer chainId, Mono<String> url) {
+        return evolutionChainCache.getDated(String.valueOf(chainId), "evolution-chain",
+                () -> snapshotService.getEvolutionStages(chainId)
+                        .map(stages -> Mono.just(new CacheEntry<>(toEvolutionChainModel(chainId, stages),
+                                snapshotService.getBuiltAt())))
+                        .orElseGet(() -> url.flatMap(this::fetchEvolutionStages)
+                                .map(stages -> new CacheEntry<>(toEvolutionChainModel(chainId, stages),
+                                        System.currentTimeMillis()))),
+                () -> url.flatMap(this::fetchEvolutionStages)
+                        .map(stages -> toEvolutionChainModel(chainId, stages)))
+                .map(PokeEvolutionChainModel::getStages);
+    }
+
+    private static PokeEvolutionChainModel toEvolutionChainModel(Integer chainId, List<List<Integer>> stages) {
+        return PokeEvolutionChainModel.builder()
+                .chainId(chainId)
+                .stages(stages)
+                .build();
+    }
+
+    /**
+     * Consulta a la api las etapas de una cadena evolutiva, sin pasar por la cache ni el snapshot
+     * @param url url de la cadena evolutiva en la api de pokemon
+     * @return lista de etapas, cada una con los ids de los pokemones de esa etapa
+     */
+    public Mono<List<List<Integer>>> fetchEvolutionStages(String url) {
+        return JsonBodyReader.read(webClient.get()
+                        .uri(url)
+                        .retrieve()
+                        .bodyToFlux(DataBuffer.class), PokeJsonExtractor.EVOLUTION_CHAIN_FIELDS,
+                        maxResponseSize.toBytes(), PokeJsonExtractor::extractEvolutionStages)
+                .retryWhen(UpstreamRetry.transientErrors())
+                .doOnError(error -> log.error("❌ Error obteniendo cadena de evolución: {}", error.getMessage()));
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.pokemon.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.pokemon.cache.PokedexSnapshot;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.util.PokeUtils;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+/**
+ * Modo "snapshot build": recorre una unica vez la api de pokemon y escribe el snapshot binario
+ * del Pokedex con todos los pokemones, los textos en todos los idiomas de sus tipos, habilidades
+ * y especies y las cadenas evolutivas. Los datos se consultan directo a la api, sin pasar por
+ * las caches, para no depender de Redis ni guardar en el snapshot entradas viejas.
+ * Se activa con {@code --pokeapi.snapshot.build=true} y al terminar cierra la aplicacion.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "pokeapi.snapshot.build", havingValue = "true")
+public class PokedexSnapshotBuilder implements ApplicationRunner {
+
+    private final PokeIndexService pokeIndexService;
+    private final PokeCacheService pokeCacheService;
+    private final PokeService pokeService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${pokeapi.snapshot.path}")
+    private String snapshotPath;
+
+    @Value("${pokeapi.snapshot.concurrency:8}")
+    private int concurrency;
+
+    public PokedexSnapshotBuilder(PokeIndexService pokeIndexService, PokeCacheService pokeCacheService,
+            PokeService pokeService, ConfigurableApplicationContext context) {
+        this.pokeIndexService = pokeIndexService;
+        this.pokeCacheService = pokeCacheService;
+        this.pokeService = pokeService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        log.info("📦 Armando snapshot del Pokedex en {}", snapshotPath);
+        // las entradas cargadas desde el snapshot vencen contando desde aca
+        long builtAt = System.currentTimeMillis();
+        PokeIndexService.PokeIndex index = pokeIndexService.getIndex().block();
+        int[] ids = index.ids();
+
+        Map<Integer, PokeCoreModel> pokemon = new ConcurrentHashMap<>();
+        // los textos de las especies llegan junto con cada pokemon
+        Map<String, Map<String, String>> translations = new ConcurrentHashMap<>();
+        Flux.fromIterable(Arrays.stream(ids).boxed().toList())
+                .flatMap(id -> pokeCacheService.fetchCoreWithSpecieTexts(id)
+                        .doOnNext(fetched -> {
+                            PokeCoreModel poke = fetched.getT1();
+                            pokemon.put(id, poke);
+                            if (poke.getSpeciesUrl() != null) {
+                                translations.put(poke.getSpeciesUrl(), fetched.getT2());
+                            }
+                        })
+                        .onErrorResume(ex -> {
+                            log.warn("⚠️ No se pudo obtener el pokemon {}: {}", id, ex.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .blockLast();
+
+        // los textos de todos los idiomas se obtienen con un unico pedido por tipo y habilidad
+        Flux.fromIterable(pokemon.values())
+                .flatMapIterable(poke -> {
+                    List<Tuple2<String, Function<String, Mono<Map<String, String>>>>> refs = new ArrayList<>();
+                    poke.getTypeUrls().stream().filter(Objects::nonNull)
+                            .forEach(url -> refs.add(Tuples.of(url, pokeCacheService::fetchTypeTranslations)));
+                    poke.getAbilityUrls().stream().filter(Objects::nonNull)
+                            .forEach(url -> refs.add(Tuples.of(url, pokeCacheService::fetchAbilityTranslations)));
+                    return refs;
+                })
+                .distinct(Tuple2::getT1)
+                .flatMap(ref -> ref.getT2().apply(ref.getT1())
+                        .doOnNext(texts -> translations.put(ref.getT1(), texts))
+                        .onErrorResume(ex -> {
+                            log.warn("⚠️ No se pudieron obtener los textos de {}: {}", ref.getT1(), ex.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .blockLast();
+
+        Map<Integer, List<List<Integer>>> chains = new TreeMap<>();
+        Flux.fromIterable(pokemon.values())
+                .filter(poke -> poke.getEvolutionChainUrl() != null)
+                .map(PokeCoreModel::getEvolutionChainUrl)
+                .distinct()
+                .flatMap(url -> pokeService.fetchEvolutionStages(url)
+                        .doOnNext(stages -> {
+                            synchronized (chains) {
+                                chains.put(PokeUtils.getIdFromUrl(url), stages);
+                            }
+                        })
+                        .onErrorResume(ex -> {
+                            log.warn("⚠️ No se pudo obtener la cadena evolutiva {}: {}", url, ex.getMessage());
+                            return Mono.empty();
+                        }), concurrency)
+                .blockLast();
+
+        PokedexSnapshot.write(Path.of(snapshotPath), builtAt, index.count(), ids, new TreeMap<>(pokemon),
+                new TreeMap<>(translations), chains);
+        log.info("📦 Snapshot del Pokedex escrito en {}: {} pokemones, {} textos traducidos, {} cadenas evolutivas",
+                snapshotPath, pokemon.size(), translations.size(), chains.size());
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
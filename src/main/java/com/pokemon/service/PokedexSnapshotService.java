@@ -0,0 +1,88 @@
+package com.pokemon.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pokemon.cache.CacheEntry;
+import com.pokemon.cache.PokedexSnapshot;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeTranslationModel;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Carga al iniciar el snapshot del Pokedex (si existe) para que una instancia nueva responda
+ * con la cache caliente desde el primer pedido, sin consultar la api de pokemon.
+ */
+@Slf4j
+@Service
+public class PokedexSnapshotService {
+
+    @Value("${pokeapi.snapshot.path:}")
+    private String snapshotPath;
+
+    @Value("${pokeapi.snapshot.build:false}")
+    private boolean buildMode;
+
+    private volatile PokedexSnapshot snapshot;
+
+    @PostConstruct
+    public void load() {
+        // al armar un snapshot nuevo no se usa el anterior, para obtener datos frescos de la api
+        if (buildMode || snapshotPath == null || snapshotPath.isBlank()) {
+            return;
+        }
+        Path path = Path.of(snapshotPath);
+        if (!Files.isReadable(path)) {
+            log.info("📦 No se encontro snapshot del Pokedex en {}", path);
+            return;
+        }
+        try {
+            snapshot = PokedexSnapshot.load(path);
+            log.info("📦 Snapshot del Pokedex cargado desde {}: {} pokemones, {} registros", path,
+                    snapshot.getPokemonCount(), snapshot.getRecordCount());
+        } catch (Exception ex) {
+            log.error("❌ Error cargando el snapshot del Pokedex {}: {}", path, ex.getMessage());
+        }
+    }
+
+    /**
+     * @return indice de la lista de pokemones guardado en el snapshot
+     */
+    public Optional<PokeIndexService.PokeIndex> getListIndex() {
+        PokedexSnapshot current = snapshot;
+        return current != null
+                ? Optional.of(new PokeIndexService.PokeIndex(current.getIds(), current.getRecordCount()))
+                : Optional.empty();
+    }
+
+    /**
+     * @return momento en que se armo el snapshot (epoch millis), usado como fecha de escritura
+     *         de las entradas que se cargan desde el para que venzan segun la edad de sus datos
+     */
+    public long getBuiltAt() {
+        PokedexSnapshot current = snapshot;
+        return current != null ? current.getBuiltAt() : CacheEntry.UNKNOWN;
+    }
+
+    public Optional<PokeCoreModel> getCore(Integer id) {
+        PokedexSnapshot current = snapshot;
+        return current != null ? current.getCore(id) : Optional.empty();
+    }
+
+    public Optional<PokeTranslationModel> getTranslations(String url) {
+        PokedexSnapshot current = snapshot;
+        return current != null ? current.getTranslations(url) : Optional.empty();
+    }
+
+    public Optional<List<List<Integer>>> getEvolutionStages(Integer chainId) {
+        PokedexSnapshot current = snapshot;
+        return current != null ? current.getEvolutionStages(chainId) : Optional.empty();
+    }
+}
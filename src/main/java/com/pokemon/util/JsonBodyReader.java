@@ -0,0 +1,166 @@
+package com.pokemon.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Set;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lee un cuerpo JSON a medida que llegan sus buffers, con el parser no bloqueante de Jackson.
+ * Cada buffer se libera apenas se procesa y del objeto raiz solo se conservan los campos
+ * pedidos; el resto (moves, game_indices, etc.) se recorre sin guardarse, de forma que la
+ * memoria usada no depende del tamaño de la respuesta. Los campos conservados se leen al final
+ * con un parser comun, por lo que los extractores de {@link PokeJsonExtractor} se usan sin
+ * cambios.
+ *
+ * <p>No es thread-safe: se usa una instancia por respuesta.
+ */
+public final class JsonBodyReader {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Lee los campos conservados de un cuerpo JSON
+     *
+     * @param <T> tipo del valor extraido
+     */
+    @FunctionalInterface
+    public interface Extractor<T> {
+        T extract(JsonParser parser) throws IOException;
+    }
+
+    private final Set<String> fields;
+    private final long maxBytes;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final TokenBuffer kept = new TokenBuffer(null, false);
+    private long readBytes;
+    private int depth;
+    private boolean keeping;
+
+    /**
+     * @param fields   campos del objeto raiz que se conservan
+     * @param maxBytes tamaño maximo del cuerpo; si se supera se corta la lectura con
+     *                 {@link DataBufferLimitException}
+     */
+    public JsonBodyReader(Set<String> fields, long maxBytes) {
+        this.fields = fields;
+        this.maxBytes = maxBytes;
+        try {
+            this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        } catch (IOException ex) {
+            throw new IllegalStateException("No se pudo crear el parser JSON", ex);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Lee un cuerpo a medida que llegan sus buffers, con un lector nuevo por cada suscripcion, de
+     * forma que se puede reintentar
+     *
+     * @param body      buffers del cuerpo de la respuesta
+     * @param fields    campos del objeto raiz que se conservan
+     * @param maxBytes  tamaño maximo del cuerpo
+     * @param extractor lectura de los campos conservados
+     * @return valor extraido del cuerpo
+     */
+    public static <T> Mono<T> read(Flux<DataBuffer> body, Set<String> fields, long maxBytes,
+            Extractor<T> extractor) {
+        return Mono.defer(() -> {
+            JsonBodyReader reader = new JsonBodyReader(fields, maxBytes);
+            return body
+                    .doOnNext(buffer -> {
+                        try {
+                            reader.feed(buffer);
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    })
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .then(Mono.fromCallable(() -> {
+                        try (JsonParser parser = reader.finish()) {
+                            return extractor.extract(parser);
+                        }
+                    }));
+        });
+    }
+
+    /**
+     * Procesa los tokens completos del buffer y lo libera
+     *
+     * @param buffer siguiente parte del cuerpo
+     */
+    public void feed(DataBuffer buffer) throws IOException {
+        try {
+            int length = buffer.readableByteCount();
+            readBytes += length;
+            if (readBytes > maxBytes) {
+                throw new DataBufferLimitException("La respuesta supera el maximo de " + maxBytes + " bytes");
+            }
+            byte[] bytes = new byte[length];
+            buffer.read(bytes);
+            feeder.feedInput(bytes, 0, length);
+            drain();
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    /**
+     * Cierra la entrada y devuelve los campos conservados
+     *
+     * @return parser sin leer sobre el objeto raiz con solo los campos pedidos
+     */
+    public JsonParser finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+        return kept.asParser();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            onToken(token);
+        }
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        if (token.isStructStart()) {
+            if (depth == 0) {
+                // si la raiz no es un objeto no hay campos para filtrar
+                keeping = token == JsonToken.START_ARRAY;
+                kept.copyCurrentEvent(parser);
+            } else if (keeping) {
+                kept.copyCurrentEvent(parser);
+            }
+            depth++;
+            return;
+        }
+        if (token.isStructEnd()) {
+            depth--;
+            if (depth == 0 || keeping) {
+                kept.copyCurrentEvent(parser);
+            }
+            return;
+        }
+        if (token == JsonToken.FIELD_NAME && depth == 1) {
+            keeping = fields.contains(parser.currentName());
+        }
+        if (keeping || depth == 0) {
+            kept.copyCurrentEvent(parser);
+        }
+    }
+}
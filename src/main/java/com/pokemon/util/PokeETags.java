@@ -0,0 +1,153 @@
+package com.pokemon.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeDetailModel;
+import com.pokemon.model.PokeListModel;
+import com.pokemon.model.PokeSpecieModel;
+
+/**
+ * ETags fuertes de las respuestas de /pokemon, calculados a partir del contenido de los modelos
+ * (SHA-256 de sus campos) sin serializarlos a JSON, de forma que un If-None-Match que coincide se
+ * responde con 304 sin armar el cuerpo.
+ */
+public final class PokeETags {
+
+    // cambiar si cambia la forma del JSON de las respuestas, para invalidar los ETags anteriores
+    private static final String FORMAT_VERSION = "1";
+
+    private PokeETags() {
+    }
+
+    /**
+     * @param detail detalle de un pokemon
+     * @return ETag del detalle, entre comillas
+     */
+    public static String of(PokeDetailModel detail) {
+        Digest digest = new Digest("detail");
+        putCache(digest, detail.getData());
+        List<List<PokeBasicModel>> stages = detail.getEvolutionList();
+        digest.putSize(stages);
+        if (stages != null) {
+            stages.forEach(stage -> {
+                digest.putSize(stage);
+                if (stage != null) {
+                    stage.forEach(poke -> putBasic(digest, poke));
+                }
+            });
+        }
+        return digest.etag();
+    }
+
+    /**
+     * @param list pagina de la lista de pokemones
+     * @return ETag de la pagina, entre comillas
+     */
+    public static String of(PokeListModel list) {
+        Digest digest = new Digest("list");
+        digest.putNumber(list.getRecordCount());
+        digest.putSize(list.getList());
+        if (list.getList() != null) {
+            list.getList().forEach(poke -> putBasic(digest, poke));
+        }
+        return digest.etag();
+    }
+
+    private static void putBasic(Digest digest, PokeBasicModel poke) {
+        if (poke == null) {
+            digest.putNull();
+            return;
+        }
+        digest.putNumber(poke.getId());
+        digest.putString(poke.getName());
+        digest.putString(poke.getImageList());
+        digest.putNumber(poke.getWeight());
+        digest.putStrings(poke.getTypeList());
+        digest.putStrings(poke.getAbilitiesList());
+    }
+
+    private static void putCache(Digest digest, PokeCacheModel poke) {
+        putBasic(digest, poke);
+        if (poke == null) {
+            return;
+        }
+        digest.putNumber(poke.getHeight());
+        digest.putString(poke.getImageDetail());
+        PokeSpecieModel species = poke.getSpecies();
+        if (species == null) {
+            digest.putNull();
+        } else {
+            digest.putString(species.getEvolutionChainUrl());
+            digest.putString(species.getFlavorText());
+        }
+    }
+
+    // cada valor se escribe con su largo (o -1 si es null) para que no haya ambiguedades
+    private static final class Digest {
+        private final MessageDigest sha;
+        private final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+
+        Digest(String kind) {
+            try {
+                sha = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException(ex);
+            }
+            putString(FORMAT_VERSION);
+            putString(kind);
+        }
+
+        void putNull() {
+            putLong(-1);
+        }
+
+        void putSize(List<?> list) {
+            putLong(list == null ? -1 : list.size());
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putNull();
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putLong(bytes.length);
+            sha.update(bytes);
+        }
+
+        void putStrings(List<String> values) {
+            putSize(values);
+            if (values != null) {
+                values.forEach(this::putString);
+            }
+        }
+
+        void putNumber(Number value) {
+            if (value == null) {
+                putNull();
+                return;
+            }
+            putString(value.toString());
+        }
+
+        void putLong(long value) {
+            buffer.clear();
+            sha.update(buffer.putLong(value).array());
+        }
+
+        String etag() {
+            // 128 bits alcanzan para distinguir versiones de una misma respuesta
+            byte[] hash = sha.digest();
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16))
+                    + "\"";
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.pokemon.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Extrae de las respuestas de la api de pokemon solo los campos que se usan, recorriendo el JSON
+ * token a token. El resto del documento (moves, game_indices, etc.) se saltea sin armar
+ * objetos intermedios.
+ */
+public class PokeJsonExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Campos del objeto raiz de /pokemon/{id} que usa {@link #extractPokemon}
+     */
+    public static final Set<String> POKEMON_FIELDS = Set.of("name", "weight", "height", "sprites", "types",
+            "abilities", "species");
+
+    /**
+     * Campos del objeto raiz de /pokemon-species/{id} que usa {@link #extractSpecie}
+     */
+    public static final Set<String> SPECIE_FIELDS = Set.of("evolution_chain", "flavor_text_entries");
+
+    /**
+     * Campos del objeto raiz de /evolution-chain/{id} que usa {@link #extractEvolutionStages}
+     */
+    public static final Set<String> EVOLUTION_CHAIN_FIELDS = Set.of("chain");
+
+    /**
+     * Campos del endpoint /pokemon/{id} usados para armar el modelo cacheado
+     *
+     * @param name        nombre del pokemon
+     * @param weight      peso en hectogramos, tal como lo informa la api
+     * @param height      altura en decimetros, tal como lo informa la api
+     * @param imageList   sprites.front_default
+     * @param imageDetail sprites.other.dream_world.front_default
+     * @param typeUrls    url de cada tipo (null si el item no la tiene)
+     * @param abilityUrls url de cada habilidad (null si el item no la tiene)
+     * @param speciesUrl  url de la especie
+     */
+    public record PokemonPayload(String name, Integer weight, Integer height, String imageList, String imageDetail,
+            List<String> typeUrls, List<String> abilityUrls, String speciesUrl) {
+    }
+
+    /**
+     * Campos del endpoint /pokemon-species/{id}
+     *
+     * @param evolutionChainUrl url de la cadena evolutiva
+     * @param flavorTexts       primer texto descriptivo de cada idioma
+     */
+    public record SpeciePayload(String evolutionChainUrl, Map<String, String> flavorTexts) {
+    }
+
+    // nodo de la cadena evolutiva: la especie y sus evoluciones directas
+    private record ChainNode(String speciesUrl, List<ChainNode> evolvesTo) {
+    }
+
+    @FunctionalInterface
+    private interface FieldHandler {
+        /**
+         * @return true si consumio el valor del campo, false para saltearlo
+         */
+        boolean handle(String field) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface ElementHandler {
+        void handle() throws IOException;
+    }
+
+    private PokeJsonExtractor() {
+    }
+
+    /**
+     * Extrae los campos usados de la respuesta de /pokemon/{id}
+     */
+    public static PokemonPayload extractPokemon(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return extractPokemon(parser);
+        }
+    }
+
+    /**
+     * Igual que {@link #extractPokemon(InputStream)}, desde un parser sin leer. Solo usa los
+     * campos de {@link #POKEMON_FIELDS}
+     */
+    public static PokemonPayload extractPokemon(JsonParser parser) throws IOException {
+        parser.nextToken();
+        String[] strings = new String[4]; // name, imageList, imageDetail, speciesUrl
+        Integer[] numbers = new Integer[2]; // weight, height
+        List<String> typeUrls = new ArrayList<>();
+        List<String> abilityUrls = new ArrayList<>();
+        forEachField(parser, field -> {
+            switch (field) {
+                case "name":
+                    strings[0] = readString(parser);
+                    return true;
+                case "weight":
+                    numbers[0] = readInt(parser);
+                    return true;
+                case "height":
+                    numbers[1] = readInt(parser);
+                    return true;
+                case "sprites":
+                    forEachField(parser, sprite -> {
+                        if ("front_default".equals(sprite)) {
+                            strings[1] = readString(parser);
+                            return true;
+                        }
+                        if ("other".equals(sprite)) {
+                            forEachField(parser, other -> {
+                                if (!"dream_world".equals(other)) {
+                                    return false;
+                                }
+                                strings[2] = readField(parser, "front_default");
+                                return true;
+                            });
+                            return true;
+                        }
+                        return false;
+                    });
+                    return true;
+                case "types":
+                    forEachElement(parser, () -> typeUrls.add(readNestedUrl(parser, "type")));
+                    return true;
+                case "abilities":
+                    forEachElement(parser, () -> abilityUrls.add(readNestedUrl(parser, "ability")));
+                    return true;
+                case "species":
+                    strings[3] = readField(parser, "url");
+                    return true;
+                default:
+                    return false;
+            }
+        });
+        return new PokemonPayload(strings[0], numbers[0], numbers[1], strings[1], strings[2], typeUrls,
+                abilityUrls, strings[3]);
+    }
+
+    /**
+     * Arma la tabla de textos por idioma de una coleccion traducida (por ejemplo "names" de
+     * /type/{id} o "flavor_text_entries" de /ability/{id}), tomando el primer valor no vacio de
+     * cada idioma
+     *
+     * @param collectionName nombre de la coleccion
+     * @param propertyName   nombre de la propiedad con el texto
+     * @return texto de cada idioma
+     */
+    public static Map<String, String> extractTranslations(InputStream in, String collectionName,
+            String propertyName) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return extractTranslations(parser, collectionName, propertyName);
+        }
+    }
+
+    /**
+     * Igual que {@link #extractTranslations(InputStream, String, String)}, desde un parser sin
+     * leer. Solo usa el campo de la coleccion
+     */
+    public static Map<String, String> extractTranslations(JsonParser parser, String collectionName,
+            String propertyName) throws IOException {
+        parser.nextToken();
+        Map<String, String> texts = new HashMap<>();
+        forEachField(parser, field -> {
+            if (!collectionName.equals(field)) {
+                return false;
+            }
+            readTranslations(parser, propertyName, texts);
+            return true;
+        });
+        return texts;
+    }
+
+    /**
+     * Extrae de /pokemon-species/{id} la url de la cadena evolutiva y la tabla de textos
+     * descriptivos por idioma
+     */
+    public static SpeciePayload extractSpecie(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return extractSpecie(parser);
+        }
+    }
+
+    /**
+     * Igual que {@link #extractSpecie(InputStream)}, desde un parser sin leer. Solo usa los campos
+     * de {@link #SPECIE_FIELDS}
+     */
+    public static SpeciePayload extractSpecie(JsonParser parser) throws IOException {
+        parser.nextToken();
+        String[] evolutionChainUrl = new String[1];
+        Map<String, String> flavorTexts = new HashMap<>();
+        forEachField(parser, field -> {
+            if ("evolution_chain".equals(field)) {
+                evolutionChainUrl[0] = readField(parser, "url");
+                return true;
+            }
+            if ("flavor_text_entries".equals(field)) {
+                readTranslations(parser, "flavor_text", flavorTexts);
+                return true;
+            }
+            return false;
+        });
+        return new SpeciePayload(evolutionChainUrl[0], flavorTexts);
+    }
+
+    /**
+     * Extrae las etapas de la respuesta de /evolution-chain/{id}, recorriendo la cadena por
+     * niveles: la primer etapa es el pokemon base y cada etapa siguiente contiene todas las
+     * evoluciones del nivel anterior
+     */
+    public static List<List<Integer>> extractEvolutionStages(InputStream in) throws IOException {
+        try (JsonParser parser = JSON_FACTORY.createParser(in)) {
+            return extractEvolutionStages(parser);
+        }
+    }
+
+    /**
+     * Igual que {@link #extractEvolutionStages(InputStream)}, desde un parser sin leer. Solo usa
+     * los campos de {@link #EVOLUTION_CHAIN_FIELDS}
+     */
+    public static List<List<Integer>> extractEvolutionStages(JsonParser parser) throws IOException {
+        parser.nextToken();
+        List<ChainNode> level = new ArrayList<>();
+        forEachField(parser, field -> {
+            if (!"chain".equals(field)) {
+                return false;
+            }
+            level.add(readChainNode(parser));
+            return true;
+        });
+        List<List<Integer>> stages = new ArrayList<>();
+        List<ChainNode> current = level;
+        while (!current.isEmpty()) {
+            List<Integer> stage = new ArrayList<>();
+            List<ChainNode> next = new ArrayList<>();
+            for (ChainNode node : current) {
+                if (node.speciesUrl() != null) {
+                    stage.add(PokeUtils.getIdFromUrl(node.speciesUrl()));
+                }
+                next.addAll(node.evolvesTo());
+            }
+            stages.add(stage);
+            current = next;
+        }
+        return stages;
+    }
+
+    // lee un nodo de la cadena evolutiva con todas sus evoluciones
+    private static ChainNode readChainNode(JsonParser parser) throws IOException {
+        String[] speciesUrl = new String[1];
+        List<ChainNode> evolvesTo = new ArrayList<>();
+        forEachField(parser, field -> {
+            if ("species".equals(field)) {
+                speciesUrl[0] = readField(parser, "url");
+                return true;
+            }
+            if ("evolves_to".equals(field)) {
+                forEachElement(parser, () -> evolvesTo.add(readChainNode(parser)));
+                return true;
+            }
+            return false;
+        });
+        return new ChainNode(speciesUrl[0], evolvesTo);
+    }
+
+    // recorre los campos del objeto actual; los que el handler no consume se saltean completos
+    private static void forEachField(JsonParser parser, FieldHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (!handler.handle(field)) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // recorre los elementos del arreglo actual; el handler debe consumir cada elemento completo
+    private static void forEachElement(JsonParser parser, ElementHandler handler) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            handler.handle();
+        }
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private static Integer readInt(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    // lee un campo de texto del objeto actual, salteando el resto
+    private static String readField(JsonParser parser, String name) throws IOException {
+        String[] value = new String[1];
+        forEachField(parser, field -> {
+            if (!name.equals(field)) {
+                return false;
+            }
+            value[0] = readString(parser);
+            return true;
+        });
+        return value[0];
+    }
+
+    // lee la url de un objeto anidado, por ejemplo {"slot": 1, "type": {"name": "...", "url": "..."}}
+    private static String readNestedUrl(JsonParser parser, String objectName) throws IOException {
+        String[] url = new String[1];
+        forEachField(parser, field -> {
+            if (!objectName.equals(field)) {
+                return false;
+            }
+            url[0] = readField(parser, "url");
+            return true;
+        });
+        return url[0];
+    }
+
+    // agrega a la tabla el primer texto no vacio de cada idioma de la coleccion actual
+    private static void readTranslations(JsonParser parser, String propertyName, Map<String, String> texts)
+            throws IOException {
+        forEachElement(parser, () -> {
+            String[] entry = readTranslationEntry(parser, propertyName);
+            if (entry[0] != null && entry[1] != null && !entry[1].isEmpty()) {
+                texts.putIfAbsent(entry[0], entry[1]);
+            }
+        });
+    }
+
+    // lee un item de una coleccion traducida: [idioma, texto]
+    private static String[] readTranslationEntry(JsonParser parser, String propertyName) throws IOException {
+        String[] entry = new String[2];
+        forEachField(parser, field -> {
+            if ("language".equals(field)) {
+                entry[0] = readField(parser, "name");
+                return true;
+            }
+            if (propertyName.equals(field)) {
+                entry[1] = readString(parser);
+                return true;
+            }
+            return false;
+        });
+        return entry;
+    }
+}
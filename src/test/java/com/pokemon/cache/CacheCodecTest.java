@@ -0,0 +1,83 @@
+package com.pokemon.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeTranslationModel;
+
+class CacheCodecTest {
+
+    private static PokeCoreModel core() {
+        return PokeCoreModel.builder()
+                .id(25)
+                .name("pikachu")
+                .imageList("https://raw.githubusercontent.com/PokeAPI/sprites/master/sprites/pokemon/25.png")
+                .weight(6.0)
+                .height(0.4)
+                .typeUrls(List.of("https://pokeapi.co/api/v2/type/13/"))
+                .abilityUrls(List.of("https://pokeapi.co/api/v2/ability/9/", "https://pokeapi.co/api/v2/ability/31/"))
+                .speciesUrl("https://pokeapi.co/api/v2/pokemon-species/25/")
+                .evolutionChainUrl("https://pokeapi.co/api/v2/evolution-chain/10/")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Debería codificar en Smile con menos bytes que en JSON")
+    void deberiaCodificarEnSmile() {
+        CacheCodec<PokeCoreModel> codec = new CacheCodec<>(PokeCoreModel.class, CacheCodec.Format.SMILE, -1);
+
+        byte[] bytes = codec.encode(new CacheEntry<>(core(), 1_700_000_000_000L));
+
+        Assertions.assertEquals(CacheCodec.MAGIC, bytes[0]);
+        Assertions.assertEquals(CacheCodec.UNCOMPRESSED, bytes[2]);
+        Assertions.assertTrue(bytes.length < new GenericJackson2JsonRedisSerializer().serialize(core()).length);
+        Assertions.assertEquals(new CacheEntry<>(core(), 1_700_000_000_000L), codec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Debería comprimir los valores que superan el umbral")
+    void deberiaComprimirValoresGrandes() {
+        CacheCodec<PokeTranslationModel> codec = new CacheCodec<>(PokeTranslationModel.class,
+                CacheCodec.Format.SMILE, 256);
+        PokeTranslationModel table = PokeTranslationModel.builder()
+                .texts(IntStream.range(0, 20).boxed().collect(Collectors.toMap(i -> "lang-" + i,
+                        i -> "Potencia los ataques de tipo Planta en un apuro.")))
+                .build();
+
+        byte[] bytes = codec.encode(new CacheEntry<>(table, 1L));
+
+        Assertions.assertEquals(CacheCodec.DEFLATE, bytes[2]);
+        Assertions.assertEquals(new CacheEntry<>(table, 1L), codec.decode(bytes));
+    }
+
+    @Test
+    @DisplayName("Debería leer las entradas escritas con el formato JSON")
+    void deberiaLeerEntradasJson() {
+        CacheCodec<PokeCoreModel> codec = new CacheCodec<>(PokeCoreModel.class, CacheCodec.Format.SMILE, 512);
+
+        byte[] legacy = new GenericJackson2JsonRedisSerializer().serialize(core());
+
+        Assertions.assertEquals(new CacheEntry<>(core(), CacheEntry.UNKNOWN), codec.decode(legacy));
+        // una entrada JSON de otro tipo se ignora
+        Assertions.assertNull(codec.decode(new GenericJackson2JsonRedisSerializer()
+                .serialize(PokeTranslationModel.builder().texts(Map.of("es", "Planta")).build())));
+    }
+
+    @Test
+    @DisplayName("Debería ignorar las entradas de una versión desconocida")
+    void deberiaIgnorarVersionDesconocida() {
+        CacheCodec<PokeCoreModel> codec = new CacheCodec<>(PokeCoreModel.class, CacheCodec.Format.SMILE, 512);
+        byte[] bytes = codec.encode(new CacheEntry<>(core(), 1L));
+        bytes[1] = (byte) (CacheCodec.VERSION + 1);
+
+        Assertions.assertNull(codec.decode(bytes));
+    }
+}
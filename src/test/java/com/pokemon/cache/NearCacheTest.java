@@ -0,0 +1,53 @@
+package com.pokemon.cache;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class NearCacheTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    @DisplayName("Debería desalojar entradas al superar la cantidad maxima")
+    void deberiaDesalojarPorCantidad() {
+        NearCache<String> cache = new NearCache<>(2, null, null, nanos::get, Runnable::run);
+        cache.put("1", "bulbasaur");
+        cache.put("2", "ivysaur");
+        cache.put("3", "venusaur");
+        cache.cleanUp();
+
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Debería desalojar entradas al superar el peso maximo")
+    void deberiaDesalojarPorPeso() {
+        NearCache<String> cache = new NearCache<>(15, String::length, null, nanos::get, Runnable::run);
+        cache.put("1", "bulbasaur");
+        cache.put("2", "ivysaur");
+        cache.cleanUp();
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    @DisplayName("Debería expirar las entradas luego del ttl sin contarlas como desalojadas")
+    void deberiaExpirarEntradas() {
+        NearCache<String> cache = new NearCache<>(10, null, Duration.ofMillis(20), nanos::get, Runnable::run);
+        cache.put("1", "bulbasaur");
+        Assertions.assertEquals("bulbasaur", cache.get("1"));
+
+        nanos.addAndGet(Duration.ofMillis(40).toNanos());
+        cache.cleanUp();
+
+        Assertions.assertNull(cache.get("1"));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getEvictions());
+    }
+}
@@ -0,0 +1,61 @@
+package com.pokemon.cache;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.pokemon.model.PokeCoreModel;
+
+class PokedexSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Debería leer desde el snapshot los mismos datos que se escribieron")
+    void deberiaLeerLosDatosEscritos() throws Exception {
+        PokeCoreModel bulbasaur = PokeCoreModel.builder()
+                .id(1)
+                .name("bulbasaur")
+                .imageList("img-list")
+                .imageDetail("img-detail")
+                .typeUrls(List.of("https://pokeapi.co/api/v2/type/12/", "https://pokeapi.co/api/v2/type/4/"))
+                .abilityUrls(List.of("https://pokeapi.co/api/v2/ability/65/"))
+                .speciesUrl("https://pokeapi.co/api/v2/pokemon-species/1/")
+                .evolutionChainUrl("https://pokeapi.co/api/v2/evolution-chain/1/")
+                .weight(6.9)
+                .height(0.7)
+                .build();
+        PokeCoreModel sinDatos = PokeCoreModel.builder().id(2).name("ivysaur").build();
+        Map<String, String> planta = Map.of("es", "Planta", "en", "Grass");
+        Path path = tempDir.resolve("pokedex.snapshot");
+
+        PokedexSnapshot.write(path, 1_700_000_000_000L, 1302, new int[] { 1, 2 },
+                Map.of(1, bulbasaur, 2, sinDatos),
+                Map.of("https://pokeapi.co/api/v2/type/12/", planta),
+                Map.of(1, List.of(List.of(1), List.of(2), List.of(3))));
+        PokedexSnapshot snapshot = PokedexSnapshot.load(path);
+
+        Assertions.assertEquals(1_700_000_000_000L, snapshot.getBuiltAt());
+        Assertions.assertEquals(1302, snapshot.getRecordCount());
+        Assertions.assertArrayEquals(new int[] { 1, 2 }, snapshot.getIds());
+        Assertions.assertEquals(2, snapshot.getPokemonCount());
+        Assertions.assertEquals(bulbasaur, snapshot.getCore(1).orElseThrow());
+        PokeCoreModel ivysaur = snapshot.getCore(2).orElseThrow();
+        Assertions.assertEquals("ivysaur", ivysaur.getName());
+        Assertions.assertNull(ivysaur.getWeight());
+        Assertions.assertNull(ivysaur.getTypeUrls());
+        Assertions.assertTrue(snapshot.getCore(3).isEmpty());
+        Assertions.assertEquals(planta,
+                snapshot.getTranslations("https://pokeapi.co/api/v2/type/12/").orElseThrow().getTexts());
+        Assertions.assertTrue(snapshot.getTranslations("https://pokeapi.co/api/v2/type/4/").isEmpty());
+        Assertions.assertEquals(List.of(List.of(1), List.of(2), List.of(3)),
+                snapshot.getEvolutionStages(1).orElseThrow());
+        Assertions.assertTrue(snapshot.getEvolutionStages(2).isEmpty());
+    }
+}
@@ -0,0 +1,348 @@
+package com.pokemon.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ReactiveCacheTest {
+
+    private MapCacheStore<String> store;
+    private ReactiveCache<String> cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        store = new MapCacheStore<>();
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null));
+        loads = new AtomicInteger();
+    }
+
+    private static CacheEntry<String> entry(String value) {
+        return new CacheEntry<>(value, CacheEntry.UNKNOWN);
+    }
+
+    private Mono<String> loader() {
+        return Mono.fromCallable(() -> "valor-" + loads.incrementAndGet())
+                .delayElement(Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("Debería agrupar las cargas concurrentes de una misma clave en una sola")
+    void deberiaAgruparCargasConcurrentes() {
+        StepVerifier.create(Flux.range(0, 100)
+                        .flatMap(i -> cache.get("clave", this::loader))
+                        .distinct()
+                        .collectList())
+                .assertNext(values -> Assertions.assertEquals(1, values.size()))
+                .verifyComplete();
+
+        Assertions.assertEquals(1, loads.get());
+        Assertions.assertEquals("valor-1", store.get("clave").block().value());
+    }
+
+    @Test
+    @DisplayName("Debería usar el valor del store sin ejecutar el loader")
+    void deberiaUsarValorDelStore() {
+        store.put("clave", entry("guardado"), null).block();
+
+        StepVerifier.create(cache.get("clave", this::loader))
+                .expectNext("guardado")
+                .verifyComplete();
+
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Debería volver a cargar la clave luego de un error")
+    void deberiaReintentarLuegoDeUnError() {
+        StepVerifier.create(cache.get("clave", () -> Mono.error(new IllegalStateException("falla"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.get("clave", this::loader))
+                .expectNext("valor-1")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería limpiar la memoria y el store")
+    void deberiaLimpiarMemoriaYStore() {
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-1").verifyComplete();
+
+        cache.clear().block();
+
+        Assertions.assertNull(store.get("clave").block());
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-2").verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería consultar la memoria al suscribirse y no al armar el pedido")
+    void deberiaConsultarLaMemoriaAlSuscribirse() {
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-1").verifyComplete();
+        Mono<String> one = cache.get("clave", this::loader);
+        Mono<Map<String, String>> all = cache.getAll(List.of("clave"), "test", key -> loader(), 1);
+
+        cache.clear().block();
+
+        StepVerifier.create(one).expectNext("valor-2").verifyComplete();
+        cache.clear().block();
+        StepVerifier.create(all).expectNext(Map.of("clave", "valor-3")).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería obtener varias claves cargando solo las que no están en memoria ni en el store")
+    void deberiaObtenerVariasClaves() {
+        store.put("guardada", entry("valor"), null).block();
+        StepVerifier.create(cache.get("local", this::loader)).expectNext("valor-1").verifyComplete();
+
+        StepVerifier.create(cache.getAll(List.of("local", "guardada", "nueva", "nueva"), "test",
+                        key -> Mono.just("cargada-" + key + "-" + loads.incrementAndGet()), 4))
+                .assertNext(values -> {
+                    Assertions.assertEquals(Map.of("local", "valor-1", "guardada", "valor", "nueva", "cargada-nueva-2"),
+                            values);
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals("cargada-nueva-2", store.get("nueva").block().value());
+    }
+
+    @Test
+    @DisplayName("Debería omitir las claves cuya carga falla al obtener varias claves")
+    void deberiaOmitirClavesConError() {
+        StepVerifier.create(cache.getAll(List.of("ok", "falla"), "test",
+                        key -> "falla".equals(key) ? Mono.error(new IllegalStateException("falla")) : Mono.just(key), 4))
+                .assertNext(values -> Assertions.assertEquals(Map.of("ok", "ok"), values))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería omitir solo las claves con errores aceptados y fallar con el resto")
+    void deberiaFallarConErroresNoOmitidos() {
+        StepVerifier.create(cache.getAllDated(List.of("ok", "inexistente"), "test",
+                        key -> "inexistente".equals(key)
+                                ? Mono.error(new IllegalArgumentException(key))
+                                : Mono.just(new CacheEntry<>(key, 0L)),
+                        Mono::just, IllegalArgumentException.class::isInstance, 4))
+                .assertNext(values -> Assertions.assertEquals(Map.of("ok", "ok"), values))
+                .verifyComplete();
+
+        StepVerifier.create(cache.getAllDated(List.of("ok", "falla"), "test",
+                        key -> Mono.error(new IllegalStateException(key)),
+                        Mono::just, IllegalArgumentException.class::isInstance, 4))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Debería devolver la entrada vencida y refrescarla una sola vez en segundo plano")
+    void deberiaRefrescarEntradaVencida() {
+        MutableClock clock = new MutableClock();
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null),
+                new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10)), clock);
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-1").verifyComplete();
+
+        clock.advance(Duration.ofMinutes(2));
+        AtomicInteger refreshes = new AtomicInteger();
+        Sinks.One<String> refreshed = Sinks.one();
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> cache.get("clave", "test", this::loader, () -> {
+                            refreshes.incrementAndGet();
+                            return refreshed.asMono();
+                        }))
+                        .distinct()
+                        .collectList())
+                .assertNext(values -> Assertions.assertEquals(List.of("valor-1"), values))
+                .verifyComplete();
+        Assertions.assertEquals(1, refreshes.get());
+
+        refreshed.tryEmitValue("nuevo");
+
+        Assertions.assertEquals("nuevo", store.get("clave").block().value());
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("nuevo").verifyComplete();
+        Assertions.assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Debería guardar los datos del loader con su fecha y refrescarlos si ya estan vencidos")
+    void deberiaUsarLaFechaDelLoader() {
+        MutableClock clock = new MutableClock();
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null),
+                new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10)), clock);
+        long builtAt = clock.millis() - Duration.ofMinutes(5).toMillis();
+        Sinks.One<String> refreshed = Sinks.one();
+
+        StepVerifier.create(cache.getDated("clave", "test", () -> Mono.just(new CacheEntry<>("snapshot", builtAt)),
+                        refreshed::asMono))
+                .expectNext("snapshot")
+                .verifyComplete();
+        Assertions.assertEquals(builtAt, store.get("clave").block().writtenAt());
+
+        refreshed.tryEmitValue("api");
+
+        Assertions.assertEquals(clock.millis(), store.get("clave").block().writtenAt());
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("api").verifyComplete();
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Debería volver a cargar la entrada que vencio del todo")
+    void deberiaCargarEntradaVencidaDelTodo() {
+        MutableClock clock = new MutableClock();
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null),
+                new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10)), clock);
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-1").verifyComplete();
+
+        clock.advance(Duration.ofMinutes(11));
+
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-2").verifyComplete();
+        Assertions.assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("Con el formato JSON no debería refrescar las entradas leidas del store, que no tienen fecha")
+    void noDeberiaRefrescarEntradasSinFechaEnFormatoJson() {
+        CodecMapStore jsonStore = new CodecMapStore(new CacheCodec<>(String.class, CacheCodec.Format.JSON, -1));
+        cache = new ReactiveCache<>("test", jsonStore, new NearCache<>(10, null),
+                new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10)));
+        jsonStore.put("a", new CacheEntry<>("guardado-a", System.currentTimeMillis()), null).block();
+        jsonStore.put("b", new CacheEntry<>("guardado-b", System.currentTimeMillis()), null).block();
+        AtomicInteger upstream = new AtomicInteger();
+
+        StepVerifier.create(cache.get("a", "test", this::loader, () -> {
+                    upstream.incrementAndGet();
+                    return Mono.just("refrescado");
+                }))
+                .expectNext("guardado-a")
+                .verifyComplete();
+        StepVerifier.create(cache.getAll(List.of("b"), "test", key -> Mono.just("cargado"),
+                        key -> {
+                            upstream.incrementAndGet();
+                            return Mono.just("refrescado");
+                        }, 4))
+                .assertNext(values -> Assertions.assertEquals(Map.of("b", "guardado-b"), values))
+                .verifyComplete();
+
+        Assertions.assertEquals(0, upstream.get());
+        Assertions.assertEquals(0, loads.get());
+    }
+
+    @Test
+    @DisplayName("Debería entregar a todos los pedidos el valor que no se puede guardar, sin guardarlo")
+    void noDeberiaGuardarValoresNoAlmacenables() {
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null),
+                new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(10)), value -> !value.endsWith("-1"));
+
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> cache.get("clave", this::loader))
+                        .distinct()
+                        .collectList())
+                .assertNext(values -> Assertions.assertEquals(List.of("valor-1"), values))
+                .verifyComplete();
+        Assertions.assertNull(store.get("clave").block());
+
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-2").verifyComplete();
+        StepVerifier.create(cache.get("clave", this::loader)).expectNext("valor-2").verifyComplete();
+        Assertions.assertEquals(2, loads.get());
+        Assertions.assertEquals("valor-2", store.get("clave").block().value());
+    }
+
+    @Test
+    @DisplayName("Debería publicar de donde se obtuvo cada valor")
+    void deberiaPublicarMetricas() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        store.put("guardada", entry("valor"), null).block();
+
+        StepVerifier.create(cache.get("nueva", this::loader)).expectNext("valor-1").verifyComplete();
+        StepVerifier.create(cache.get("nueva", this::loader)).expectNext("valor-1").verifyComplete();
+        StepVerifier.create(cache.get("guardada", this::loader)).expectNext("valor").verifyComplete();
+
+        Assertions.assertEquals(1, registry.get("pokeapi.cache.requests").tag("result", ReactiveCache.RESULT_MISS)
+                .tag("outcome", "success").timer().count());
+        Assertions.assertEquals(1, registry.get("pokeapi.cache.requests").tag("result", ReactiveCache.RESULT_LOCAL)
+                .tag("outcome", "success").timer().count());
+        Assertions.assertEquals(1, registry.get("pokeapi.cache.requests").tag("result", ReactiveCache.RESULT_STORE)
+                .tag("outcome", "success").timer().count());
+        Assertions.assertEquals(2.0, registry.get("pokeapi.cache.size").gauge().value());
+    }
+
+    // store que guarda los bytes codificados, como RedisCacheStore
+    private static class CodecMapStore implements CacheStore<String> {
+
+        private final CacheCodec<String> codec;
+        private final Map<String, byte[]> values = new ConcurrentHashMap<>();
+
+        CodecMapStore(CacheCodec<String> codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public Mono<CacheEntry<String>> get(String key) {
+            return Mono.justOrEmpty(values.get(key)).mapNotNull(codec::decode);
+        }
+
+        @Override
+        public Mono<Map<String, CacheEntry<String>>> getAll(List<String> keys) {
+            return Flux.fromIterable(keys)
+                    .flatMap(key -> get(key).map(entry -> Map.entry(key, entry)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        }
+
+        @Override
+        public Mono<Void> put(String key, CacheEntry<String> entry, Duration ttl) {
+            return Mono.fromRunnable(() -> values.put(key, codec.encode(entry)));
+        }
+
+        @Override
+        public Mono<Void> clear() {
+            return Mono.fromRunnable(values::clear);
+        }
+
+        @Override
+        public boolean recordsWriteTime() {
+            return codec.recordsWriteTime();
+        }
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
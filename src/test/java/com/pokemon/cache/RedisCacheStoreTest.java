@@ -0,0 +1,121 @@
+package com.pokemon.cache;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import com.pokemon.model.PokeCoreModel;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import redis.embedded.RedisServer;
+
+/**
+ * Acceso a Redis desde hilos de reactor con BlockHound instalado: cualquier operacion bloqueante
+ * hace fallar la prueba. Se ejecuta con ./gradlew blockHoundTest
+ */
+@Tag("blockhound")
+class RedisCacheStoreTest {
+
+    private static final int REDIS_PORT = 6391;
+
+    private static RedisServer redisServer;
+    private static LettuceConnectionFactory connectionFactory;
+
+    private RedisCacheStore<PokeCoreModel> store;
+    private ReactiveCache<PokeCoreModel> cache;
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redisServer = new RedisServer(REDIS_PORT);
+        redisServer.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", REDIS_PORT));
+        connectionFactory.afterPropertiesSet();
+        // la conexion compartida se abre una sola vez, antes de instalar BlockHound
+        connectionFactory.getReactiveConnection().ping().block();
+        BlockHound.install();
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        connectionFactory.destroy();
+        redisServer.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        store = new RedisCacheStore<>("test", new CacheCodec<>(PokeCoreModel.class, CacheCodec.Format.SMILE, 512),
+                connectionFactory);
+        cache = new ReactiveCache<>("test", store, new NearCache<>(10, null));
+        store.clear().block();
+    }
+
+    private static PokeCoreModel core(int id) {
+        return PokeCoreModel.builder().id(id).name("pokemon-" + id).typeUrls(List.of()).abilityUrls(List.of()).build();
+    }
+
+    private static CacheEntry<PokeCoreModel> entry(int id) {
+        return new CacheEntry<>(core(id), System.currentTimeMillis());
+    }
+
+    @Test
+    @DisplayName("Debería detectar una llamada bloqueante en un hilo de reactor")
+    void deberiaDetectarLlamadasBloqueantes() {
+        StepVerifier.create(Mono.fromCallable(() -> {
+                    Thread.sleep(1);
+                    return 1;
+                }).subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Debería leer, escribir y limpiar Redis sin bloquear los hilos de reactor")
+    void deberiaUsarRedisSinBloquear() {
+        Mono<Map<String, CacheEntry<PokeCoreModel>>> flow = Mono.defer(() -> store.put("1", entry(1), null)
+                        .then(store.put("2", entry(2), Duration.ofMinutes(1)))
+                        .then(store.getAll(List.of("1", "2", "3"))))
+                .subscribeOn(Schedulers.parallel());
+
+        StepVerifier.create(flow)
+                .assertNext(values -> {
+                    Assertions.assertEquals(2, values.size());
+                    Assertions.assertEquals("pokemon-2", values.get("2").value().getName());
+                })
+                .verifyComplete();
+
+        StepVerifier.create(store.clear().then(store.get("1")).subscribeOn(Schedulers.parallel()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería cachear en Redis sin bloquear los hilos de reactor")
+    void deberiaCachearSinBloquear() {
+        StepVerifier.create(cache.get("25", () -> Mono.just(core(25))).subscribeOn(Schedulers.parallel()))
+                .assertNext(value -> Assertions.assertEquals(25, value.getId()))
+                .verifyComplete();
+        cache.clearLocal();
+
+        StepVerifier.create(cache.getAll(List.of("25", "26"), "pokemon", key -> Mono.just(core(Integer.parseInt(key))), 2)
+                        .subscribeOn(Schedulers.parallel()))
+                .assertNext(values -> Assertions.assertEquals(2, values.size()))
+                .verifyComplete();
+        StepVerifier.create(store.get("26").subscribeOn(Schedulers.parallel()))
+                .assertNext(entry -> Assertions.assertEquals("pokemon-26", entry.value().getName()))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,184 @@
+package com.pokemon.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class UpstreamCircuitBreakerTest {
+
+    private static final ClientRequest SPECIES = request("http://localhost/api/v2/pokemon-species/1/");
+    private static final ClientRequest POKEMON = request("http://localhost/api/v2/pokemon/1");
+
+    private final ExchangeFunction failing = request -> Mono.just(ClientResponse.create(HttpStatus.BAD_GATEWAY).build());
+    private final ExchangeFunction ok = request -> Mono.just(ClientResponse.create(HttpStatus.OK).build());
+
+    private static ClientRequest request(String url) {
+        return ClientRequest.create(HttpMethod.GET, URI.create(url)).build();
+    }
+
+    // lee el cuerpo como lo hace WebClient: la llamada termina con la lectura
+    private static Mono<ClientResponse> read(Mono<ClientResponse> call) {
+        return call.flatMap(response -> response.releaseBody().thenReturn(response));
+    }
+
+    @Test
+    @DisplayName("Debería abrir el circuito del endpoint que falla y rechazar sus llamadas al instante")
+    void deberiaAbrirElCircuito() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(4, 0.5, Duration.ofMinutes(1), 10,
+                Duration.ofSeconds(1), Duration.ofSeconds(5), registry);
+
+        StepVerifier.create(Flux.range(0, 4).concatMap(i -> read(breaker.filter(SPECIES, failing))).count())
+                .expectNext(4L)
+                .verifyComplete();
+        Assertions.assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState("species"));
+
+        StepVerifier.create(breaker.filter(SPECIES, ok))
+                .expectErrorSatisfies(ex -> Assertions.assertEquals(UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN,
+                        ((UpstreamUnavailableException) ex).getReason()))
+                .verify();
+        // los demas tipos de endpoint no se ven afectados
+        StepVerifier.create(breaker.filter(POKEMON, ok)).expectNextCount(1).verifyComplete();
+        Assertions.assertEquals(1.0, registry.get("pokeapi.upstream.rejected").tag("kind", "species").counter().count());
+    }
+
+    @Test
+    @DisplayName("Debería cerrar el circuito si la llamada de prueba responde bien")
+    void deberiaCerrarElCircuitoLuegoDeLaPrueba() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(2, 0.5, Duration.ZERO, 10,
+                Duration.ofSeconds(1), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        StepVerifier.create(Flux.range(0, 2).concatMap(i -> read(breaker.filter(SPECIES, failing))).count())
+                .expectNext(2L)
+                .verifyComplete();
+
+        // con el tiempo de apertura cumplido pasa una unica llamada de prueba
+        Sinks.One<ClientResponse> trial = Sinks.one();
+        StepVerifier.create(Mono.zip(
+                        read(breaker.filter(SPECIES, request -> trial.asMono())),
+                        breaker.filter(SPECIES, ok).onErrorResume(UpstreamUnavailableException.class,
+                                ex -> Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()))
+                                .doOnNext(response -> trial.tryEmitValue(ClientResponse.create(HttpStatus.OK).build()))))
+                .assertNext(tuple -> {
+                    Assertions.assertEquals(HttpStatus.OK, tuple.getT1().statusCode());
+                    Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, tuple.getT2().statusCode());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState("species"));
+    }
+
+    @Test
+    @DisplayName("Debería hacer esperar a las llamadas que superan el maximo de concurrencia del endpoint")
+    void deberiaEsperarUnLugarDelBulkhead() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(10, 0.5, Duration.ofMinutes(1), 3,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        // la lectura del cuerpo tambien ocupa el lugar
+        ExchangeFunction slowBody = request -> Mono.fromCallable(() -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            return ClientResponse.create(HttpStatus.OK)
+                    .body(Flux.just("{}").delayElements(Duration.ofMillis(20))
+                            .<DataBuffer>map(json -> DefaultDataBufferFactory.sharedInstance.wrap(json.getBytes()))
+                            .doOnTerminate(active::decrementAndGet))
+                    .build();
+        });
+
+        // mas textos distintos de habilidades que lugares, como al armar una pagina sin cache
+        StepVerifier.create(Flux.range(1, 40)
+                        .flatMap(id -> breaker.filter(request("http://localhost/api/v2/ability/" + id + "/"), slowBody)
+                                .flatMap(response -> response.bodyToMono(String.class)))
+                        .count())
+                .expectNext(40L)
+                .verifyComplete();
+
+        Assertions.assertEquals(3, maxActive.get());
+        Assertions.assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState("ability"));
+    }
+
+    @Test
+    @DisplayName("Debería contar como falla la respuesta cuyo cuerpo no termina dentro del timeout")
+    void deberiaAplicarElTimeoutALaLecturaDelCuerpo() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(1, 0.5, Duration.ofMinutes(1), 10,
+                Duration.ofSeconds(1), Duration.ofMillis(50), new SimpleMeterRegistry());
+        ExchangeFunction stalled = request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.<DataBuffer>never())
+                .build());
+
+        StepVerifier.create(breaker.filter(SPECIES, breaker.callTimeout().apply(stalled))
+                        .flatMap(response -> response.bodyToMono(String.class)))
+                .expectError(TimeoutException.class)
+                .verify(Duration.ofSeconds(5));
+        Assertions.assertEquals(UpstreamCircuitBreaker.State.OPEN, breaker.getState("species"));
+    }
+
+    @Test
+    @DisplayName("Debería rechazar las llamadas de un endpoint que superan su maximo de concurrencia")
+    void deberiaAislarCadaEndpoint() {
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(10, 0.5, Duration.ofMinutes(1), 2,
+                Duration.ofMillis(10), Duration.ofSeconds(5), new SimpleMeterRegistry());
+        ExchangeFunction slow = request -> Mono.delay(Duration.ofMillis(50))
+                .thenReturn(ClientResponse.create(HttpStatus.OK).build());
+
+        StepVerifier.create(Flux.range(0, 3)
+                        .flatMap(i -> read(breaker.filter(SPECIES, slow))
+                                .map(response -> "ok")
+                                .onErrorResume(UpstreamUnavailableException.class, ex -> Mono.just(ex.getReason())))
+                        .collectList())
+                .assertNext(results -> {
+                    Assertions.assertEquals(2, results.stream().filter("ok"::equals).count());
+                    Assertions.assertTrue(results.contains(UpstreamCircuitBreaker.REASON_BULKHEAD_FULL));
+                })
+                .verifyComplete();
+        // el endpoint de pokemon tiene sus propios lugares
+        StepVerifier.create(breaker.filter(POKEMON, slow)).expectNextCount(1).verifyComplete();
+        Assertions.assertEquals(UpstreamCircuitBreaker.State.CLOSED, breaker.getState("species"));
+    }
+
+    @Test
+    @DisplayName("Debería dejar pasar las llamadas de otro endpoint aunque uno lento sature su bulkhead")
+    void noDeberiaRetenerLugaresGlobalesEnElBulkhead() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(4, registry);
+        UpstreamCircuitBreaker breaker = new UpstreamCircuitBreaker(10, 0.5, Duration.ofMinutes(1), 32,
+                Duration.ofSeconds(5), Duration.ofSeconds(5), limiter::getLimit, registry);
+        Sinks.Empty<Void> stalled = Sinks.empty();
+        // las especies no responden hasta el final; los pokemones responden al instante
+        ExchangeFunction upstream = limiter.apply(request -> request.url().getPath().contains("pokemon-species")
+                ? stalled.asMono().thenReturn(ClientResponse.create(HttpStatus.OK).build())
+                : Mono.just(ClientResponse.create(HttpStatus.OK).build()));
+
+        Disposable species = Flux.range(1, 40)
+                .flatMap(id -> read(breaker.filter(request("http://localhost/api/v2/pokemon-species/" + id + "/"),
+                        upstream)))
+                .subscribe();
+
+        StepVerifier.create(read(breaker.filter(POKEMON, upstream)))
+                .expectNextCount(1)
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+        // las especies ocupan a lo sumo la mitad del limite global
+        Assertions.assertEquals(2.0, registry.get("pokeapi.upstream.active").gauge().value());
+
+        species.dispose();
+    }
+}
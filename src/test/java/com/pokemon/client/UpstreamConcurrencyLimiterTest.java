@@ -0,0 +1,180 @@
+package com.pokemon.client;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class UpstreamConcurrencyLimiterTest {
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    // simula una llamada a la api que tarda y registra la concurrencia maxima alcanzada
+    private final ExchangeFunction slowExchange = request -> Mono.defer(() -> {
+        maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+        return Mono.delay(Duration.ofMillis(20))
+                .then(Mono.fromCallable(() -> ClientResponse.create(HttpStatus.OK).build()))
+                .doOnSuccess(response -> active.decrementAndGet());
+    });
+
+    // lee el cuerpo como lo hace WebClient: la llamada termina con la lectura
+    private static Mono<ClientResponse> read(Mono<ClientResponse> call) {
+        return call.flatMap(response -> response.releaseBody().thenReturn(response));
+    }
+
+    @Test
+    @DisplayName("Debería respetar el límite global de llamadas concurrentes")
+    void deberiaRespetarElLimite() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(3, registry);
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> read(limiter.filter(request, slowExchange)))
+                        .count())
+                .expectNext(20L)
+                .verifyComplete();
+
+        Assertions.assertEquals(3, maxActive.get());
+        Assertions.assertEquals(20, registry.get("pokeapi.upstream.queue").timer().count());
+        Assertions.assertEquals(0.0, registry.get("pokeapi.upstream.active").gauge().value());
+    }
+
+    @Test
+    @DisplayName("Debería liberar el lugar de los pedidos cancelados mientras esperaban")
+    void deberiaLiberarPedidosCancelados() {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(1, new SimpleMeterRegistry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+
+        // el segundo pedido espera y se cancela por timeout antes de obtener lugar
+        StepVerifier.create(Mono.zip(
+                        read(limiter.filter(request, slowExchange)),
+                        read(limiter.filter(request, slowExchange)).timeout(Duration.ofMillis(5), Mono.empty())
+                                .defaultIfEmpty(ClientResponse.create(HttpStatus.NO_CONTENT).build())))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        StepVerifier.create(read(limiter.filter(request, slowExchange)))
+                .expectNextCount(1)
+                .verifyComplete();
+        Assertions.assertEquals(1, maxActive.get());
+    }
+
+    @Test
+    @DisplayName("Debería reducir el límite y pausar las llamadas ante un 429")
+    void deberiaRespetarRetryAfter() {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(1, 8, 2.0, Duration.ofMillis(200),
+                new SimpleMeterRegistry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+        ExchangeFunction throttled = req -> Mono.just(ClientResponse.create(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .build());
+
+        StepVerifier.create(read(limiter.filter(request, throttled)))
+                .assertNext(response -> Assertions.assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.statusCode()))
+                .verifyComplete();
+        Assertions.assertEquals(4, limiter.getLimit());
+
+        // la pausa se acota a 200ms aunque Retry-After pida 30 segundos
+        long start = System.nanoTime();
+        StepVerifier.create(read(limiter.filter(request, slowExchange)))
+                .expectNextCount(1)
+                .verifyComplete();
+        long elapsed = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        Assertions.assertTrue(elapsed >= 150 && elapsed < 5000, "espera de " + elapsed + "ms");
+    }
+
+    @Test
+    @DisplayName("Debería bajar el límite cuando sube la latencia y recuperarlo cuando baja")
+    void deberiaAdaptarseALaLatencia() {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(1, 8, 2.0, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+        ExchangeFunction fast = req -> Mono.delay(Duration.ofMillis(1))
+                .thenReturn(ClientResponse.create(HttpStatus.OK).build());
+        ExchangeFunction slow = req -> Mono.delay(Duration.ofMillis(40))
+                .thenReturn(ClientResponse.create(HttpStatus.OK).build());
+
+        Flux.range(0, 30).concatMap(i -> read(limiter.filter(request, fast))).blockLast();
+        Assertions.assertEquals(8, limiter.getLimit());
+
+        Flux.range(0, 10).concatMap(i -> read(limiter.filter(request, slow))).blockLast();
+        int reduced = limiter.getLimit();
+        Assertions.assertTrue(reduced < 8, "limite " + reduced);
+
+        Flux.range(0, 300).flatMap(i -> read(limiter.filter(request, fast)), 8).blockLast();
+        Assertions.assertTrue(limiter.getLimit() > reduced, "limite " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Debería ocupar el lugar hasta terminar de leer el cuerpo de la respuesta")
+    void deberiaLiberarElLugarAlLeerElCuerpo() {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(1, new SimpleMeterRegistry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+        ExchangeFunction ok = req -> Mono.just(ClientResponse.create(HttpStatus.OK).body("{}").build());
+
+        ClientResponse first = limiter.filter(request, ok).block();
+        StepVerifier.create(limiter.filter(request, ok))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(50))
+                .then(() -> first.releaseBody().subscribe())
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería contar la lectura del cuerpo en la latencia usada para adaptar el límite")
+    void deberiaMedirLaLatenciaHastaLeerElCuerpo() {
+        UpstreamConcurrencyLimiter limiter = new UpstreamConcurrencyLimiter(1, 8, 2.0, Duration.ofSeconds(1),
+                new SimpleMeterRegistry());
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/pokemon/1")).build();
+        ExchangeFunction fast = req -> Mono.delay(Duration.ofMillis(1))
+                .thenReturn(ClientResponse.create(HttpStatus.OK).build());
+        // los encabezados llegan enseguida pero el cuerpo tarda
+        ExchangeFunction slowBody = req -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                .body(Flux.<DataBuffer>empty().delaySubscription(Duration.ofMillis(40)))
+                .build());
+
+        Flux.range(0, 30).concatMap(i -> read(limiter.filter(request, fast))).blockLast();
+        Assertions.assertEquals(8, limiter.getLimit());
+
+        Flux.range(0, 10).concatMap(i -> read(limiter.filter(request, slowBody))).blockLast();
+        Assertions.assertTrue(limiter.getLimit() < 8, "limite " + limiter.getLimit());
+    }
+
+    @Test
+    @DisplayName("Debería leer Retry-After en segundos o como fecha")
+    void deberiaLeerRetryAfter() {
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "2");
+        Assertions.assertEquals(Duration.ofSeconds(2).toNanos(), UpstreamConcurrencyLimiter.retryAfterNanos(seconds));
+
+        HttpHeaders date = new HttpHeaders();
+        date.set(HttpHeaders.RETRY_AFTER, DateTimeFormatter.RFC_1123_DATE_TIME
+                .format(ZonedDateTime.now(ZoneOffset.UTC).plusSeconds(10)));
+        long nanos = UpstreamConcurrencyLimiter.retryAfterNanos(date);
+        Assertions.assertTrue(nanos > Duration.ofSeconds(8).toNanos() && nanos <= Duration.ofSeconds(10).toNanos());
+
+        Assertions.assertEquals(Duration.ofSeconds(1).toNanos(),
+                UpstreamConcurrencyLimiter.retryAfterNanos(new HttpHeaders()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.pokemon.client;
+
+import java.net.URI;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class UpstreamMetricsFilterTest {
+
+    @Test
+    @DisplayName("Debería clasificar las llamadas según el endpoint de la api")
+    void deberiaClasificarLlamadas() {
+        Assertions.assertEquals("pokemon", UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/pokemon/25")));
+        Assertions.assertEquals("pokemon-list",
+                UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/pokemon?offset=0&limit=100000")));
+        Assertions.assertEquals("type", UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/type/13/")));
+        Assertions.assertEquals("species",
+                UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/pokemon-species/25/")));
+        Assertions.assertEquals("evolution-chain",
+                UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/evolution-chain/10/")));
+        Assertions.assertEquals("other", UpstreamMetricsFilter.kindOf(URI.create("https://pokeapi.co/api/v2/move/1/")));
+    }
+
+    @Test
+    @DisplayName("Debería registrar la llamada al terminar de leer la respuesta")
+    void deberiaRegistrarLlamada() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UpstreamMetricsFilter filter = new UpstreamMetricsFilter(registry);
+        ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://localhost/type/13/")).build();
+
+        StepVerifier.create(filter.filter(request,
+                        req -> Mono.just(ClientResponse.create(HttpStatus.NOT_FOUND).body("{}").build()))
+                        .flatMap(response -> response.bodyToMono(String.class)))
+                .expectNext("{}")
+                .verifyComplete();
+
+        Assertions.assertEquals(1, registry.get("pokeapi.upstream.requests")
+                .tag("kind", "type")
+                .tag("outcome", "CLIENT_ERROR")
+                .tag("status", "404")
+                .timer().count());
+    }
+}
@@ -0,0 +1,35 @@
+package com.pokemon.client;
+
+import java.net.SocketException;
+import java.net.URI;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+class UpstreamRetryTest {
+
+    private static WebClientResponseException response(HttpStatus status) {
+        return WebClientResponseException.create(status.value(), status.getReasonPhrase(), HttpHeaders.EMPTY,
+                new byte[0], null);
+    }
+
+    @Test
+    @DisplayName("Debería reintentar solo las respuestas 5xx y los errores de conexion")
+    void deberiaReintentarSoloErroresTransitorios() {
+        Assertions.assertTrue(UpstreamRetry.isTransient(response(HttpStatus.BAD_GATEWAY)));
+        Assertions.assertTrue(UpstreamRetry.isTransient(new WebClientRequestException(new SocketException("reset"),
+                HttpMethod.GET, URI.create("http://localhost/api/v2/pokemon/1"), HttpHeaders.EMPTY)));
+
+        // el limitador se ocupa de los 429, y el resto de los 4xx no cambia al repetir la llamada
+        Assertions.assertFalse(UpstreamRetry.isTransient(response(HttpStatus.TOO_MANY_REQUESTS)));
+        Assertions.assertFalse(UpstreamRetry.isTransient(response(HttpStatus.NOT_FOUND)));
+        Assertions.assertFalse(UpstreamRetry.isTransient(
+                new UpstreamUnavailableException("pokemon", UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN)));
+    }
+}
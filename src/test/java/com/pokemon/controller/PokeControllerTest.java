@@ -1,28 +1,86 @@
 package com.pokemon.controller;
 
+import java.time.Duration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.cache.CacheExpiry;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.NoCacheStore;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeBatchRequestModel;
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeDetailBody;
 import com.pokemon.model.PokeDetailModel;
+import com.pokemon.model.PokeListHeaderModel;
 import com.pokemon.model.PokeListModel;
+import com.pokemon.model.PokeListPage;
+import com.pokemon.service.PokeDetailBodyService;
+import com.pokemon.service.PokeListPageService;
 import com.pokemon.service.PokeService;
+import com.pokemon.util.PokeETags;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 
 @WebFluxTest(PokeController.class)
+@Import({ PokeListPageService.class, PokeDetailBodyService.class, PokeControllerTest.ListPageCacheConfig.class })
 class PokeControllerTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private ReactiveCache<PokeListPage> listPageCache;
+
     @MockBean
     private PokeService pokeService;
 
+    @SpyBean
+    private ObjectMapper objectMapper;
+
+    @TestConfiguration
+    static class ListPageCacheConfig {
+        @Bean
+        ReactiveCache<PokeListPage> listPageCache() {
+            return new ReactiveCache<>("listPages", new NoCacheStore<>(),
+                    new NearCache<>(10, null),
+                    new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    page -> !page.degraded());
+        }
+
+        @Bean
+        ReactiveCache<PokeDetailBody> detailBodyCache() {
+            return new ReactiveCache<>("detailBodies", new NoCacheStore<>(),
+                    new NearCache<>(10, null),
+                    new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                    body -> !body.degraded());
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // el contexto se comparte entre los tests, las paginas cacheadas no
+        listPageCache.clearLocal();
+    }
+
     @Test
     @DisplayName("Debería retornar la lista de pokemones")
     void deberiaRetornarListaDePokemones() {
@@ -49,9 +107,213 @@ class PokeControllerTest {
                 .isEqualTo(detalle);
     }
 
+    @Test
+    @DisplayName("Debería enviar con no-store el detalle armado sin la api disponible")
+    void deberiaEnviarSinCachearElDetalleDegradado() {
+        PokeDetailModel detalle = PokeDetailModel.builder()
+                .data(PokeCacheModel.builder().id(1).name("bulbasaur").build())
+                .evolutionList(java.util.List.of())
+                .degraded(true)
+                .build();
+        Mockito.when(pokeService.getPokemonDetail(eq(1), eq("es"))).thenReturn(Mono.just(detalle));
+
+        webTestClient.get().uri("/pokemon/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noStore())
+                .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.data.name").isEqualTo("bulbasaur")
+                .jsonPath("$.degraded").doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Debería responder 304 sin cuerpo cuando el detalle no cambió")
+    void deberiaResponderNotModifiedConElMismoETag() {
+        PokeDetailModel detalle = PokeDetailModel.builder()
+                .data(PokeCacheModel.builder().id(1).name("bulbasaur").build())
+                .evolutionList(java.util.List.of())
+                .build();
+        Mockito.when(pokeService.getPokemonDetail(eq(1), eq("es"))).thenReturn(Mono.just(detalle));
+
+        String etag = webTestClient.get().uri("/pokemon/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic()
+                        .staleWhileRevalidate(Duration.ofHours(1)))
+                .returnResult(PokeDetailModel.class)
+                .getResponseHeaders().getETag();
+        Assertions.assertNotNull(etag);
+
+        webTestClient.get().uri("/pokemon/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, etag)
+                .expectBody().isEmpty();
+
+        // si el contenido cambia, cambia el ETag
+        detalle.getData().setName("ivysaur");
+        webTestClient.get().uri("/pokemon/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PokeDetailModel.class)
+                .isEqualTo(detalle);
+    }
+
+    @Test
+    @DisplayName("Debería responder 304 sin serializar el detalle cuando el ETag coincide")
+    void noDeberiaSerializarElDetalleSinCambios() {
+        PokeDetailModel detalle = PokeDetailModel.builder()
+                .data(PokeCacheModel.builder().id(1).name("bulbasaur").build())
+                .evolutionList(java.util.List.of())
+                .build();
+        Mockito.when(pokeService.getPokemonDetail(eq(1), eq("es"))).thenReturn(Mono.just(detalle));
+        Mockito.clearInvocations(objectMapper);
+
+        webTestClient.get().uri("/pokemon/1")
+                .header(HttpHeaders.IF_NONE_MATCH, PokeETags.of(detalle))
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        Mockito.verify(objectMapper, Mockito.never()).writer();
+        Mockito.verify(objectMapper, Mockito.never()).writerWithView(any());
+    }
+
+    @Test
+    @DisplayName("Debería responder 304 cuando la pagina no cambió")
+    void deberiaResponderNotModifiedParaLaLista() {
+        PokeListModel lista = PokeListModel.builder().recordCount(1)
+                .list(java.util.List.of(PokeBasicModel.builder().id(1).name("bulbasaur").build())).build();
+        Mockito.when(pokeService.getPokemonList(any(), any(), eq("es"))).thenReturn(Mono.just(lista));
+
+        String etag = webTestClient.get().uri("/pokemon?page=0&size=1")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(PokeListModel.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get().uri("/pokemon?page=0&size=1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    @DisplayName("Debería responder la misma pagina desde el cache sin volver a armarla")
+    void deberiaResponderLaListaDesdeElCache() {
+        PokeListModel lista = PokeListModel.builder().recordCount(1)
+                .list(java.util.List.of(PokeBasicModel.builder().id(1).name("bulbasaur").build())).build();
+        Mockito.when(pokeService.getPokemonList(any(), any(), eq("es"))).thenReturn(Mono.just(lista));
+
+        for (int i = 0; i < 3; i++) {
+            webTestClient.get().uri("/pokemon?page=0&size=1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                    .expectBody(PokeListModel.class)
+                    .isEqualTo(lista);
+        }
+        Mockito.verify(pokeService, Mockito.times(1)).getPokemonList(any(), any(), eq("es"));
+
+        // otro idioma es otra pagina
+        Mockito.when(pokeService.getPokemonList(any(), any(), eq("en"))).thenReturn(Mono.just(lista));
+        webTestClient.get().uri("/pokemon?page=0&size=1&language=en")
+                .exchange()
+                .expectStatus().isOk();
+        Mockito.verify(pokeService, Mockito.times(1)).getPokemonList(any(), any(), eq("en"));
+
+        // limpiar el cache descarta las paginas
+        Mockito.when(pokeService.clearCache()).thenReturn(Mono.empty());
+        webTestClient.get().uri("/pokemon/clear-cache").exchange().expectStatus().isOk();
+        webTestClient.get().uri("/pokemon?page=0&size=1")
+                .exchange()
+                .expectStatus().isOk();
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonList(any(), any(), eq("es"));
+    }
+
+    @Test
+    @DisplayName("Debería enviar con no-store la lista armada sin la api disponible")
+    void deberiaEnviarSinCachearLaListaDegradada() {
+        PokeListModel lista = PokeListModel.builder().recordCount(1)
+                .list(java.util.List.of(PokeBasicModel.builder().id(1).name("bulbasaur").degraded(true).build())).build();
+        Mockito.when(pokeService.getPokemonList(any(), any(), eq("es"))).thenReturn(Mono.just(lista));
+
+        for (int i = 0; i < 2; i++) {
+            webTestClient.get().uri("/pokemon?page=0&size=1")
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectHeader().cacheControl(CacheControl.noStore())
+                    .expectHeader().doesNotExist(HttpHeaders.ETAG)
+                    .expectBody()
+                    .jsonPath("$.list[0].name").isEqualTo("bulbasaur")
+                    .jsonPath("$.list[0].degraded").doesNotExist();
+        }
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonList(any(), any(), eq("es"));
+    }
+
+    @Test
+    @DisplayName("Debería retornar el detalle de varios pokemones por GET y POST")
+    void deberiaRetornarDetalleDeVariosPokemones() {
+        java.util.List<PokeDetailModel> detalles = java.util.List.of(
+                PokeDetailModel.builder().data(PokeCacheModel.builder().id(4).build()).build(),
+                PokeDetailModel.builder().data(PokeCacheModel.builder().id(1).build()).build());
+        Mockito.when(pokeService.getPokemonBatch(eq(java.util.List.of(4, 1)), eq("es"))).thenReturn(Mono.just(detalles));
+
+        webTestClient.get().uri("/pokemon/batch?ids=4,1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PokeDetailModel.class)
+                .isEqualTo(detalles);
+
+        webTestClient.post().uri("/pokemon/batch")
+                .bodyValue(PokeBatchRequestModel.builder().ids(java.util.List.of(4, 1)).build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(PokeDetailModel.class)
+                .isEqualTo(detalles);
+    }
+
+    @Test
+    @DisplayName("Debería retornar error 400 si no se indican ids en el pedido de varios pokemones")
+    void deberiaRetornarErrorSiNoHayIds() {
+        webTestClient.get().uri("/pokemon/batch")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(msg -> org.assertj.core.api.Assertions.assertThat(msg)
+                        .contains("Debe indicar al menos un número de Pokemon"));
+    }
+
+    @Test
+    @DisplayName("Debería emitir la lista en streaming con el encabezado primero")
+    void deberiaEmitirListaEnStreaming() {
+        PokeListHeaderModel header = PokeListHeaderModel.builder().recordCount(1302).build();
+        PokeBasicModel bulbasaur = PokeBasicModel.builder().id(1).name("bulbasaur").build();
+        Mockito.when(pokeService.getPokemonListStream(any(), any(), eq("es")))
+                .thenReturn(Flux.just(header, bulbasaur));
+
+        webTestClient.get().uri("/pokemon/stream?page=0&size=1")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .value(body -> {
+                    String[] lines = body.trim().split("\n");
+                    org.assertj.core.api.Assertions.assertThat(lines).hasSize(2);
+                    org.assertj.core.api.Assertions.assertThat(lines[0]).contains("\"recordCount\":1302");
+                    org.assertj.core.api.Assertions.assertThat(lines[1]).contains("\"name\":\"bulbasaur\"");
+                });
+    }
+
     @Test
     @DisplayName("Debería limpiar el caché de pokemones")
     void deberiaLimpiarCacheDePokemones() {
+        Mockito.when(pokeService.clearCache()).thenReturn(Mono.empty());
+
         webTestClient.get().uri("/pokemon/clear-cache")
                 .exchange()
                 .expectStatus().isOk()
@@ -59,6 +321,16 @@ class PokeControllerTest {
                 .isEqualTo("Cache limpiado exitosamente");
     }
 
+    @Test
+    @DisplayName("Debería retornar error 400 si el id del pokemon no es un número")
+    void deberiaRetornarErrorSiIdNoEsNumero() {
+        webTestClient.get().uri("/pokemon/pikachu")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class)
+                .value(msg -> org.assertj.core.api.Assertions.assertThat(msg).contains("\"codigo\":400"));
+    }
+
     @Test
     @DisplayName("Debería retornar error 400 si el tamaño de página supera el máximo permitido")
     void deberiaRetornarErrorSiSizeSuperaMaximo() {
@@ -1,5 +1,6 @@
 package com.pokemon.controller;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
@@ -8,28 +9,30 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.web.reactive.server.WebTestClient;
 
+import reactor.core.publisher.Mono;
+
 @WebFluxTest(RedisTestController.class)
 class RedisTestControllerTest {
     @Autowired
     private WebTestClient webTestClient;
 
     @MockBean
-    private RedisTemplate<String, String> redisTemplate;
+    private ReactiveStringRedisTemplate redisTemplate;
 
     @MockBean
-    private ValueOperations<String, String> valueOperations;
+    private ReactiveValueOperations<String, String> valueOperations;
 
     @Test
     @DisplayName("Debería retornar éxito si Redis responde correctamente")
     void deberiaRetornarExitoSiRedisFunciona() {
         when(redisTemplate.opsForValue()).thenReturn(valueOperations);
-        when(valueOperations.get(eq("testKey"))).thenReturn("ok");
-        // No es necesario mockear set, solo que no lance excepción
+        when(valueOperations.set(eq("testKey"), eq("ok"), any())).thenReturn(Mono.just(true));
+        when(valueOperations.get(eq("testKey"))).thenReturn(Mono.just("ok"));
 
         webTestClient.get().uri("/test/redis")
                 .exchange()
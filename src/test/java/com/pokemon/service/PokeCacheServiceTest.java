@@ -2,17 +2,33 @@ package com.pokemon.service;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.reactive.function.client.WebClient;
 
+import com.pokemon.cache.CacheInvalidationBus;
+import com.pokemon.cache.MapCacheStore;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.client.UpstreamCircuitBreaker;
+import com.pokemon.client.UpstreamUnavailableException;
 import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeCoreModel;
+import com.pokemon.model.PokeTranslationModel;
 
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -20,6 +36,8 @@ class PokeCacheServiceTest {
 
     private MockWebServer mockWebServer;
     private PokeCacheService pokeCacheService;
+    // cantidad de llamadas recibidas por cada endpoint de la api
+    private final Map<String, AtomicInteger> requestCount = new ConcurrentHashMap<>();
 
     @BeforeEach
     void setup() throws IOException {
@@ -29,7 +47,13 @@ class PokeCacheServiceTest {
         // inyectamos WebClient con baseUrl a MockWebServer
         pokeCacheService = new PokeCacheService(WebClient.builder()
                 .baseUrl(mockWebServer.url("/").toString())
-                .build());
+                .build(),
+                new ReactiveCache<PokeTranslationModel>("translationTables", new MapCacheStore<>(),
+                        new NearCache<>(100, null)),
+                new ReactiveCache<PokeCoreModel>("pokemonCore", new MapCacheStore<>(), null),
+                Mockito.mock(CacheInvalidationBus.class),
+                Mockito.mock(PokedexSnapshotService.class));
+        ReflectionTestUtils.setField(pokeCacheService, "pokeApiUrl", mockWebServer.url("/pokemon").toString());
 
         // respuesta para GET /pokemon/10271 (tu primer JSON)
         String pokemonJson = "{\n" +
@@ -133,22 +157,26 @@ class PokeCacheServiceTest {
                 "  ]\n" +
                 "}";
 
-        // encolamos las respuestas en el orden en que el servicio las consume
-        mockWebServer.enqueue(new MockResponse()
-                .setBody(pokemonJson)
-                .addHeader("Content-Type", "application/json"));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody(typeJson)
-                .addHeader("Content-Type", "application/json"));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody(abilityJson)
-                .addHeader("Content-Type", "application/json"));
-
-        mockWebServer.enqueue(new MockResponse()
-                .setBody(speciesJson)
-                .addHeader("Content-Type", "application/json"));
+        // cada endpoint responde segun su path, sin depender del orden de las llamadas
+        Map<String, String> responses = Map.of(
+                "/pokemon/", pokemonJson,
+                "/type/", typeJson,
+                "/ability/", abilityJson,
+                "/pokemon-species/", speciesJson);
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                for (Map.Entry<String, String> entry : responses.entrySet()) {
+                    if (request.getPath().startsWith(entry.getKey())) {
+                        requestCount.computeIfAbsent(entry.getKey(), k -> new AtomicInteger()).incrementAndGet();
+                        return new MockResponse()
+                                .setBody(entry.getValue())
+                                .addHeader("Content-Type", "application/json");
+                    }
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
     }
 
     @AfterEach
@@ -185,4 +213,110 @@ class PokeCacheServiceTest {
                 })
                 .verifyComplete();
     }
+
+    @Test
+    void testGetDataPokeSinTextosCuandoLaApiNoEstaDisponible() {
+        // con el circuito de habilidades abierto el pokemon se devuelve sin el texto de la habilidad
+        PokeCacheService degraded = new PokeCacheService(WebClient.builder()
+                .baseUrl(mockWebServer.url("/").toString())
+                .filter((request, next) -> request.url().getPath().startsWith("/ability/")
+                        ? Mono.error(new UpstreamUnavailableException("ability",
+                                UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN))
+                        : next.exchange(request))
+                .build(),
+                new ReactiveCache<PokeTranslationModel>("translationTables", new MapCacheStore<>(), null),
+                new ReactiveCache<PokeCoreModel>("pokemonCore", new MapCacheStore<>(), null),
+                Mockito.mock(CacheInvalidationBus.class),
+                Mockito.mock(PokedexSnapshotService.class));
+        ReflectionTestUtils.setField(degraded, "pokeApiUrl", mockWebServer.url("/pokemon").toString());
+
+        StepVerifier.create(degraded.getDataPoke(10271, "es"))
+                .assertNext(p -> {
+                    Assertions.assertEquals(List.of("Fuego"), p.getTypeList());
+                    Assertions.assertEquals(List.of("Desconocido"), p.getAbilitiesList());
+                    Assertions.assertTrue(p.isDegraded());
+                })
+                .verifyComplete();
+        Assertions.assertNull(requestCount.get("/ability/"));
+    }
+
+    @Test
+    void testGetDataPokeCompartiendoTraducciones() {
+        // dos pokemones con el mismo tipo y habilidad solo consultan una vez cada traduccion
+        Mono<List<PokeCacheModel>> result = Mono.zip(
+                pokeCacheService.getDataPoke(10271, "es"),
+                pokeCacheService.getDataPoke(10272, "es"))
+                .map(tuple -> List.of(tuple.getT1(), tuple.getT2()));
+
+        StepVerifier.create(result)
+                .assertNext(list -> {
+                    Assertions.assertEquals(List.of("Fuego"), list.get(0).getTypeList());
+                    Assertions.assertEquals(List.of("Fuego"), list.get(1).getTypeList());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(2, requestCount.get("/pokemon/").get());
+        Assertions.assertEquals(1, requestCount.get("/type/").get());
+        Assertions.assertEquals(1, requestCount.get("/ability/").get());
+    }
+
+    @Test
+    void testGetDataPokeAgrupaPedidosConcurrentes() {
+        // 100 pedidos simultaneos del mismo pokemon consultan la api una sola vez
+        Mono<Long> result = Flux.range(0, 100)
+                .flatMap(i -> pokeCacheService.getDataPoke(25, "es"))
+                .count();
+
+        StepVerifier.create(result)
+                .expectNext(100L)
+                .verifyComplete();
+
+        Assertions.assertEquals(1, requestCount.get("/pokemon/").get());
+
+        // un nuevo pedido se resuelve desde la cache sin volver a la api
+        StepVerifier.create(pokeCacheService.getDataPoke(25, "es"))
+                .assertNext(p -> Assertions.assertEquals(25, p.getId()))
+                .verifyComplete();
+        Assertions.assertEquals(1, requestCount.get("/pokemon/").get());
+    }
+
+    @Test
+    void testGetDataPokesConsultaSoloLosFaltantes() {
+        // el pokemon ya cacheado no vuelve a consultarse, solo el faltante
+        StepVerifier.create(pokeCacheService.getDataPoke(10271, "es"))
+                .assertNext(p -> Assertions.assertEquals(10271, p.getId()))
+                .verifyComplete();
+
+        StepVerifier.create(pokeCacheService.getDataPokes(List.of(10271, 25), "es", 5))
+                .assertNext(pokes -> {
+                    Assertions.assertEquals(2, pokes.size());
+                    Assertions.assertEquals(List.of("Fuego"), pokes.get(25).getTypeList());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(2, requestCount.get("/pokemon/").get());
+        Assertions.assertEquals(1, requestCount.get("/type/").get());
+    }
+
+    @Test
+    void testGetDataPokeCambiandoIdioma() {
+        // cambiar de idioma reutiliza los datos del pokemon y las tablas de textos ya cacheadas
+        StepVerifier.create(pokeCacheService.getDataPoke(10271, "es"))
+                .assertNext(p -> Assertions.assertEquals(List.of("Fuego"), p.getTypeList()))
+                .verifyComplete();
+        StepVerifier.create(pokeCacheService.getDataPoke(10271, "en"))
+                .assertNext(p -> {
+                    Assertions.assertEquals("miraidon-glide-mode", p.getName());
+                    Assertions.assertEquals(List.of("Desconocido"), p.getTypeList());
+                    Assertions.assertEquals("https://pokeapi.co/api/v2/evolution-chain/2/",
+                            p.getSpecies().getEvolutionChainUrl());
+                    Assertions.assertNull(p.getSpecies().getFlavorText());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(1, requestCount.get("/pokemon/").get());
+        Assertions.assertEquals(1, requestCount.get("/type/").get());
+        Assertions.assertEquals(1, requestCount.get("/ability/").get());
+        Assertions.assertEquals(1, requestCount.get("/pokemon-species/").get());
+    }
 }
@@ -0,0 +1,95 @@
+package com.pokemon.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.cache.CacheExpiry;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.NoCacheStore;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeCacheModel;
+import com.pokemon.model.PokeDetailBody;
+import com.pokemon.model.PokeDetailModel;
+import com.pokemon.util.PokeETags;
+
+import reactor.core.publisher.Mono;
+
+import static org.mockito.ArgumentMatchers.eq;
+
+class PokeDetailBodyServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final PokeDetailModel detalle = PokeDetailModel.builder()
+            .data(PokeCacheModel.builder().id(1).name("bulbasaur").typeList(List.of("Planta")).build())
+            .evolutionList(List.of(List.of(PokeBasicModel.builder().id(2).name("ivysaur").build())))
+            .build();
+    private PokeService pokeService;
+    private PokeDetailBodyService detailBodyService;
+
+    @BeforeEach
+    void setUp() {
+        pokeService = Mockito.mock(PokeService.class);
+        Mockito.when(pokeService.getPokemonDetail(eq(1), eq("es"))).thenReturn(Mono.just(detalle));
+        detailBodyService = new PokeDetailBodyService(pokeService,
+                new ReactiveCache<>("detailBodies", new NoCacheStore<>(),
+                        new NearCache<>(10, null),
+                        new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                        body -> !body.degraded()),
+                objectMapper);
+    }
+
+    @Test
+    @DisplayName("Debería guardar el JSON del detalle y responderlo sin volver a armarlo")
+    void deberiaCachearElJsonDelDetalle() throws Exception {
+        ReflectionTestUtils.setField(detailBodyService, "enabled", true);
+
+        PokeDetailBody first = detailBodyService.getDetail(1, "es").block();
+        PokeDetailBody second = detailBodyService.getDetail(1, "es").block();
+
+        Assertions.assertArrayEquals(objectMapper.writeValueAsBytes(detalle), first.body());
+        Assertions.assertEquals(PokeETags.of(detalle), first.etag());
+        Assertions.assertSame(first.body(), second.body());
+        Mockito.verify(pokeService, Mockito.times(1)).getPokemonDetail(eq(1), eq("es"));
+
+        // limpiar el cache obliga a armarlo de nuevo
+        detailBodyService.clear().block();
+        detailBodyService.getDetail(1, "es").block();
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonDetail(eq(1), eq("es"));
+    }
+
+    @Test
+    @DisplayName("No debería guardar el JSON de un detalle degradado")
+    void noDeberiaCachearElDetalleDegradado() {
+        ReflectionTestUtils.setField(detailBodyService, "enabled", true);
+        PokeDetailModel degradado = PokeDetailModel.builder()
+                .data(PokeCacheModel.builder().id(1).name("bulbasaur").build())
+                .evolutionList(List.of())
+                .degraded(true)
+                .build();
+        Mockito.when(pokeService.getPokemonDetail(eq(1), eq("es"))).thenReturn(Mono.just(degradado));
+
+        Assertions.assertTrue(detailBodyService.getDetail(1, "es").block().degraded());
+        detailBodyService.getDetail(1, "es").block();
+
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonDetail(eq(1), eq("es"));
+    }
+
+    @Test
+    @DisplayName("Sin la opcion habilitada debería armar el detalle en cada pedido")
+    void deberiaArmarElDetalleSinLaOpcion() throws Exception {
+        PokeDetailBody first = detailBodyService.getDetail(1, "es").block();
+        detailBodyService.getDetail(1, "es").block();
+
+        Assertions.assertArrayEquals(objectMapper.writeValueAsBytes(detalle), first.body());
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonDetail(eq(1), eq("es"));
+    }
+}
@@ -0,0 +1,125 @@
+package com.pokemon.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pokemon.cache.CacheExpiry;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.NoCacheStore;
+import com.pokemon.cache.ReactiveCache;
+import com.pokemon.model.PokeBasicModel;
+import com.pokemon.model.PokeListModel;
+import com.pokemon.model.PokeListPage;
+import com.pokemon.util.PokeETags;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.eq;
+
+class PokeListPageServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PokeService pokeService;
+    private PokeListPageService pageService;
+
+    @BeforeEach
+    void setUp() {
+        pokeService = Mockito.mock(PokeService.class);
+        pageService = new PokeListPageService(pokeService,
+                new ReactiveCache<>("listPages", new NoCacheStore<>(),
+                        new NearCache<>(10, null),
+                        new CacheExpiry(Duration.ofMinutes(1), Duration.ofMinutes(1)),
+                        page -> !page.degraded()),
+                objectMapper);
+    }
+
+    @Test
+    @DisplayName("Debería armar una sola vez la pagina para pedidos simultaneos")
+    void deberiaCompartirLaPaginaEntrePedidosSimultaneos() throws Exception {
+        PokeListModel lista = lista(2, 2);
+        Sinks.One<PokeListModel> pending = Sinks.one();
+        Mockito.when(pokeService.getPokemonList(eq(0), eq(2), eq("es"))).thenReturn(pending.asMono());
+
+        Mono<List<PokeListPage>> pages = Flux.range(0, 20)
+                .flatMap(i -> pageService.getPage(0, 2, "es"))
+                .collectList();
+
+        StepVerifier.create(pages)
+                .then(() -> pending.tryEmitValue(lista))
+                .assertNext(result -> {
+                    Assertions.assertEquals(20, result.size());
+                    // todos reciben los mismos bytes
+                    result.forEach(page -> Assertions.assertSame(result.get(0).body(), page.body()));
+                })
+                .verifyComplete();
+
+        PokeListPage page = pageService.getPage(0, 2, "es").block();
+        Assertions.assertArrayEquals(objectMapper.writeValueAsBytes(lista), page.body());
+        Assertions.assertEquals(PokeETags.of(lista), page.etag());
+        Mockito.verify(pokeService, Mockito.times(1)).getPokemonList(eq(0), eq(2), eq("es"));
+    }
+
+    @Test
+    @DisplayName("No debería cachear una pagina a la que le faltan pokemones")
+    void noDeberiaCachearPaginasIncompletas() {
+        Mockito.when(pokeService.getPokemonList(eq(0), eq(2), eq("es"))).thenReturn(Mono.just(lista(5, 1)));
+
+        StepVerifier.create(pageService.getPage(0, 2, "es"))
+                .assertNext(page -> {
+                    Assertions.assertEquals(PokeETags.of(lista(5, 1)), page.etag());
+                    Assertions.assertTrue(page.degraded());
+                })
+                .verifyComplete();
+        StepVerifier.create(pageService.getPage(0, 2, "es"))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonList(eq(0), eq(2), eq("es"));
+    }
+
+    @Test
+    @DisplayName("No debería cachear una pagina con textos reemplazados porque la api no estaba disponible")
+    void noDeberiaCachearPaginasDegradadas() {
+        PokeListModel lista = lista(2, 2);
+        lista.getList().get(1).setDegraded(true);
+        Mockito.when(pokeService.getPokemonList(eq(0), eq(2), eq("es"))).thenReturn(Mono.just(lista));
+
+        StepVerifier.create(pageService.getPage(0, 2, "es"))
+                .assertNext(page -> Assertions.assertTrue(page.degraded()))
+                .verifyComplete();
+        pageService.getPage(0, 2, "es").block();
+
+        Mockito.verify(pokeService, Mockito.times(2)).getPokemonList(eq(0), eq(2), eq("es"));
+    }
+
+    @Test
+    @DisplayName("Debería cachear la ultima pagina aunque tenga menos elementos que el tamaño pedido")
+    void deberiaCachearLaUltimaPagina() {
+        Mockito.when(pokeService.getPokemonList(eq(1), eq(2), eq("es"))).thenReturn(Mono.just(lista(3, 1)));
+
+        pageService.getPage(1, 2, "es").block();
+        pageService.getPage(1, 2, "es").block();
+
+        Mockito.verify(pokeService, Mockito.times(1)).getPokemonList(eq(1), eq(2), eq("es"));
+    }
+
+    private static PokeListModel lista(int recordCount, int size) {
+        return PokeListModel.builder()
+                .recordCount(recordCount)
+                .list(Flux.range(1, size)
+                        .map(id -> PokeBasicModel.builder().id(id).name("pokemon-" + id).build())
+                        .collectList()
+                        .block())
+                .build();
+    }
+}
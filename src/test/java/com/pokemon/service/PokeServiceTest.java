@@ -1,21 +1,35 @@
 package com.pokemon.service;
 
+import com.pokemon.cache.MapCacheStore;
+import com.pokemon.client.UpstreamCircuitBreaker;
+import com.pokemon.client.UpstreamUnavailableException;
+import com.pokemon.cache.NearCache;
+import com.pokemon.cache.ReactiveCache;
 import com.pokemon.model.PokeBasicModel;
 import com.pokemon.model.PokeCacheModel;
 import com.pokemon.model.PokeDetailModel;
+import com.pokemon.model.PokeEvolutionChainModel;
 import com.pokemon.model.PokeListModel;
 import com.pokemon.model.PokeSpecieModel;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.*;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.when;
@@ -33,7 +47,12 @@ class PokeServiceTest {
                 .baseUrl(mockWebServer.url("/").toString())
                 .build();
         pokeCacheService = Mockito.mock(PokeCacheService.class);
-        pokeService = new PokeService(webClient, pokeCacheService);
+        PokedexSnapshotService snapshotService = Mockito.mock(PokedexSnapshotService.class);
+        pokeService = new PokeService(webClient, pokeCacheService, snapshotService,
+                new PokeIndexService(webClient, snapshotService),
+                new ReactiveCache<PokeEvolutionChainModel>("evolutionChains", new MapCacheStore<>(),
+                        new NearCache<>(10, null)),
+                new ReactiveCache<Integer>("evolutionChainIds", new MapCacheStore<>(), new NearCache<>(10, null)));
     }
 
     @AfterEach
@@ -103,7 +122,8 @@ class PokeServiceTest {
                 .weight(69.2)
                 .height(0.7)
                 .build();
-        when(pokeCacheService.getDataPoke(anyInt(), anyString())).thenReturn(Mono.just(cacheModel));
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any()))
+                .thenReturn(Mono.just(Map.of(1, cacheModel)));
 
         Mono<PokeListModel> result = pokeService.getPokemonList(0, 1, "es");
         StepVerifier.create(result)
@@ -127,8 +147,8 @@ class PokeServiceTest {
                 "}";
         mockWebServer.enqueue(new MockResponse().setBody(listJson).addHeader("Content-Type", "application/json"));
 
-        // no se debe llamar a pokeCacheService.getDataPoke, pero si se llama, que devuelva vacío
-        when(pokeCacheService.getDataPoke(anyInt(), anyString())).thenReturn(Mono.empty());
+        // no se debe llamar a pokeCacheService.getDataPokes, pero si se llama, que devuelva vacío
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any())).thenReturn(Mono.just(Map.of()));
 
         Mono<PokeListModel> result = pokeService.getPokemonList(0, 1, "es");
         StepVerifier.create(result)
@@ -140,6 +160,48 @@ class PokeServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Debería armar todas las páginas desde el índice obtenido con un único pedido")
+    void deberiaArmarPaginasDesdeElIndice() throws Exception {
+        String listJson = "{" +
+                "  \"count\": 3," +
+                "  \"results\": [" +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/1/") + "\" }," +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/2/") + "\" }," +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/3/") + "\" }" +
+                "  ]" +
+                "}";
+        mockWebServer.enqueue(new MockResponse().setBody(listJson).addHeader("Content-Type", "application/json"));
+        Map<Integer, PokeCacheModel> pokes = new HashMap<>();
+        for (int id = 1; id <= 3; id++) {
+            pokes.put(id, PokeCacheModel.builder().id(id).name("pokemon-" + id).build());
+        }
+        // la cache devuelve solo los pokemones pedidos de cada pagina
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            Map<Integer, PokeCacheModel> page = new HashMap<>();
+            ids.forEach(id -> page.put(id, pokes.get(id)));
+            return Mono.just(page);
+        });
+
+        StepVerifier.create(pokeService.getPokemonList(0, 2, "es"))
+                .assertNext(list -> {
+                    Assertions.assertEquals(3, list.getRecordCount());
+                    Assertions.assertEquals(List.of("pokemon-1", "pokemon-2"),
+                            list.getList().stream().map(PokeBasicModel::getName).toList());
+                })
+                .verifyComplete();
+        StepVerifier.create(pokeService.getPokemonList(1, 2, "es"))
+                .assertNext(list -> {
+                    Assertions.assertEquals(3, list.getRecordCount());
+                    Assertions.assertEquals(1, list.getList().size());
+                    Assertions.assertEquals("pokemon-3", list.getList().get(0).getName());
+                })
+                .verifyComplete();
+
+        Assertions.assertEquals(1, mockWebServer.getRequestCount());
+    }
+
     @Test
     @DisplayName("Debería obtener el detalle de un pokemon con su cadena evolutiva completa")
     void deberiaObtenerDetalleConEvoluciones() throws Exception {
@@ -228,6 +290,181 @@ class PokeServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("Debería resolver una única vez la cadena evolutiva compartida por sus miembros")
+    void deberiaCachearLaCadenaEvolutiva() throws Exception {
+        PokeSpecieModel specie = PokeSpecieModel.builder()
+                .evolutionChainUrl(mockWebServer.url("/evolution-chain/1/").toString())
+                .build();
+        for (int id = 1; id <= 3; id++) {
+            when(pokeCacheService.getDataPoke(Mockito.eq(id), anyString()))
+                    .thenReturn(Mono.just(PokeCacheModel.builder().id(id).name("pokemon-" + id).species(specie).build()));
+        }
+        String evolutionJson = "{\"chain\": {" +
+                "  \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/1/") + "\"}," +
+                "  \"evolves_to\": [{" +
+                "    \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/2/") + "\"}," +
+                "    \"evolves_to\": [{" +
+                "      \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/3/") + "\"}," +
+                "      \"evolves_to\": []" +
+                "    }]" +
+                "  }]" +
+                "}}";
+        mockWebServer.enqueue(new MockResponse().setBody(evolutionJson).addHeader("Content-Type", "application/json"));
+
+        // bulbasaur resuelve la cadena; ivysaur y venusaur la obtienen desde la cache por el id de la cadena
+        for (int id = 1; id <= 3; id++) {
+            StepVerifier.create(pokeService.getPokemonDetail(id, "es"))
+                    .assertNext(detail -> {
+                        Assertions.assertEquals(3, detail.getEvolutionList().size());
+                        Assertions.assertEquals("pokemon-3", detail.getEvolutionList().get(2).get(0).getName());
+                    })
+                    .verifyComplete();
+        }
+
+        Assertions.assertEquals(1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    @DisplayName("Debería marcar como degradado el detalle al que le falta un pokemon de la cadena")
+    void deberiaMarcarDegradadoElDetalleConLaCadenaIncompleta() {
+        PokeSpecieModel specie = PokeSpecieModel.builder()
+                .evolutionChainUrl(mockWebServer.url("/evolution-chain/1/").toString())
+                .build();
+        when(pokeCacheService.getDataPoke(Mockito.eq(1), anyString()))
+                .thenReturn(Mono.just(PokeCacheModel.builder().id(1).name("pokemon-1").species(specie).build()));
+        when(pokeCacheService.getDataPoke(Mockito.eq(2), anyString()))
+                .thenReturn(Mono.error(new UpstreamUnavailableException("pokemon", UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN)));
+        String evolutionJson = "{\"chain\": {" +
+                "  \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/1/") + "\"}," +
+                "  \"evolves_to\": [{" +
+                "    \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/2/") + "\"}," +
+                "    \"evolves_to\": []" +
+                "  }]" +
+                "}}";
+        mockWebServer.enqueue(new MockResponse().setBody(evolutionJson).addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(pokeService.getPokemonDetail(1, "es"))
+                .assertNext(detail -> {
+                    Assertions.assertEquals(List.of(), detail.getEvolutionList().get(1));
+                    Assertions.assertTrue(detail.isDegraded());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Debería obtener varios pokemones en el orden pedido consultando una vez la cadena compartida")
+    void deberiaObtenerVariosPokemonesEnOrden() throws Exception {
+        PokeSpecieModel specie = PokeSpecieModel.builder()
+                .evolutionChainUrl(mockWebServer.url("/evolution-chain/1/").toString())
+                .build();
+        Map<Integer, PokeCacheModel> pokes = new HashMap<>();
+        for (int id = 1; id <= 3; id++) {
+            pokes.put(id, PokeCacheModel.builder().id(id).name("pokemon-" + id).species(specie).build());
+        }
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any())).thenReturn(Mono.just(pokes));
+        String evolutionJson = "{\"chain\": {" +
+                "  \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/1/") + "\"}," +
+                "  \"evolves_to\": [{" +
+                "    \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/2/") + "\"}," +
+                "    \"evolves_to\": [{" +
+                "      \"species\": {\"url\": \"" + mockWebServer.url("/pokemon-species/3/") + "\"}," +
+                "      \"evolves_to\": []" +
+                "    }]" +
+                "  }]" +
+                "}}";
+        mockWebServer.enqueue(new MockResponse().setBody(evolutionJson).addHeader("Content-Type", "application/json"));
+
+        StepVerifier.create(pokeService.getPokemonBatch(List.of(3, 1, 2, 3), "es"))
+                .assertNext(details -> {
+                    Assertions.assertEquals(List.of(3, 1, 2), details.stream().map(d -> d.getData().getId()).toList());
+                    details.forEach(detail -> {
+                        Assertions.assertEquals(3, detail.getEvolutionList().size());
+                        Assertions.assertEquals("pokemon-2", detail.getEvolutionList().get(1).get(0).getName());
+                    });
+                })
+                .verifyComplete();
+
+        // una sola consulta de la cadena y una sola busqueda de pokemones, los integrantes ya estaban
+        Assertions.assertEquals(1, mockWebServer.getRequestCount());
+        Mockito.verify(pokeCacheService, Mockito.times(1)).getDataPokes(anyCollection(), anyString(), anyInt(), any());
+        Mockito.verify(pokeCacheService, Mockito.never()).getDataPokes(anyCollection(), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Debería fallar el pedido de varios pokemones si la api no está disponible, sin confundirlo con inexistentes")
+    void deberiaFallarElPedidoDeVariosSinApi() {
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any()))
+                .thenReturn(Mono.error(new UpstreamUnavailableException("pokemon", UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN)));
+
+        StepVerifier.create(pokeService.getPokemonBatch(List.of(1, 2), "es"))
+                .expectError(UpstreamUnavailableException.class)
+                .verify();
+    }
+
+    // como la cache: omite las claves con errores aceptados y falla con el resto
+    private void stubDataPokesFailing(Map<Integer, Throwable> failures) {
+        when(pokeCacheService.getDataPokes(anyCollection(), anyString(), anyInt(), any())).thenAnswer(invocation -> {
+            Collection<Integer> ids = invocation.getArgument(0);
+            Predicate<Throwable> omitted = invocation.getArgument(3);
+            Map<Integer, PokeCacheModel> found = new HashMap<>();
+            for (Integer id : ids) {
+                Throwable failure = failures.get(id);
+                if (failure == null) {
+                    found.put(id, PokeCacheModel.builder().id(id).name("pokemon-" + id)
+                            .species(PokeSpecieModel.builder().build()).build());
+                } else if (!omitted.test(failure)) {
+                    return Mono.error(failure);
+                }
+            }
+            return Mono.just(found);
+        });
+    }
+
+    @Test
+    @DisplayName("Debería omitir de la página solo los pokemones inexistentes o sin api, y fallar con otros errores")
+    void deberiaOmitirDeLaPaginaSoloInexistentesOSinApi() {
+        String listJson = "{" +
+                "  \"count\": 3," +
+                "  \"results\": [" +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/1/") + "\" }," +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/2/") + "\" }," +
+                "    { \"url\": \"" + mockWebServer.url("/pokemon/3/") + "\" }" +
+                "  ]" +
+                "}";
+        mockWebServer.enqueue(new MockResponse().setBody(listJson).addHeader("Content-Type", "application/json"));
+        stubDataPokesFailing(Map.of(
+                2, WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null),
+                3, new UpstreamUnavailableException("pokemon", UpstreamCircuitBreaker.REASON_CIRCUIT_OPEN)));
+
+        StepVerifier.create(pokeService.getPokemonList(0, 3, "es"))
+                .assertNext(list -> Assertions.assertEquals(List.of("pokemon-1"),
+                        list.getList().stream().map(PokeBasicModel::getName).toList()))
+                .verifyComplete();
+
+        stubDataPokesFailing(Map.of(
+                3, WebClientResponseException.create(500, "Internal Server Error", HttpHeaders.EMPTY, new byte[0], null)));
+        StepVerifier.create(pokeService.getPokemonList(0, 3, "es"))
+                .expectError(WebClientResponseException.InternalServerError.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Debería omitir del pedido de varios pokemones solo los que la api no encuentra")
+    void deberiaOmitirSoloLosPokemonesInexistentes() {
+        stubDataPokesFailing(Map.of(
+                2, WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null),
+                3, WebClientResponseException.create(502, "Bad Gateway", HttpHeaders.EMPTY, new byte[0], null)));
+
+        StepVerifier.create(pokeService.getPokemonBatch(List.of(1, 2), "es"))
+                .assertNext(details -> Assertions.assertEquals(List.of(1),
+                        details.stream().map(d -> d.getData().getId()).toList()))
+                .verifyComplete();
+        StepVerifier.create(pokeService.getPokemonBatch(List.of(1, 2, 3), "es"))
+                .expectError(WebClientResponseException.BadGateway.class)
+                .verify();
+    }
+
     @Test
     @DisplayName("Debería obtener la cadena evolutiva múltiple como Eevee por ej")
     void deberiaObtenerEvolucionesMultiplesParaEevee() throws Exception {
@@ -0,0 +1,70 @@
+package com.pokemon.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.NettyDataBuffer;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import io.netty.buffer.UnpooledByteBufAllocator;
+
+class JsonBodyReaderTest {
+
+    private final NettyDataBufferFactory bufferFactory = new NettyDataBufferFactory(UnpooledByteBufAllocator.DEFAULT);
+
+    private static final String POKEMON = """
+            {
+              "abilities": [{"ability": {"name": "static", "url": "https://pokeapi.co/api/v2/ability/9/"}, "slot": 1}],
+              "moves": [{"move": {"name": "mega-punch", "url": "https://pokeapi.co/api/v2/move/5/"}, "version_group_details": [{"level_learned_at": 0}]}],
+              "name": "pikachu",
+              "sprites": {"front_default": "front.png", "other": {"dream_world": {"front_default": "dream.svg"}}},
+              "species": {"name": "pikachu", "url": "https://pokeapi.co/api/v2/pokemon-species/25/"},
+              "types": [{"slot": 1, "type": {"name": "electric", "url": "https://pokeapi.co/api/v2/type/13/"}}],
+              "height": 4,
+              "weight": 60
+            }
+            """;
+
+    @Test
+    @DisplayName("Debería extraer lo mismo que el parser bloqueante aunque el cuerpo llegue partido, liberando cada buffer")
+    void deberiaLeerElCuerpoPartido() throws IOException {
+        byte[] body = POKEMON.getBytes(StandardCharsets.UTF_8);
+        PokeJsonExtractor.PokemonPayload expected = PokeJsonExtractor.extractPokemon(new ByteArrayInputStream(body));
+
+        for (int chunk : new int[] { 1, 7, body.length }) {
+            JsonBodyReader reader = new JsonBodyReader(PokeJsonExtractor.POKEMON_FIELDS, body.length);
+            List<NettyDataBuffer> buffers = new ArrayList<>();
+            for (int i = 0; i < body.length; i += chunk) {
+                NettyDataBuffer buffer = bufferFactory.wrap(Arrays.copyOfRange(body, i, Math.min(body.length, i + chunk)));
+                buffers.add(buffer);
+                reader.feed(buffer);
+            }
+            try (JsonParser parser = reader.finish()) {
+                Assertions.assertEquals(expected, PokeJsonExtractor.extractPokemon(parser));
+            }
+            buffers.forEach(buffer -> Assertions.assertEquals(0, buffer.getNativeBuffer().refCnt()));
+        }
+    }
+
+    @Test
+    @DisplayName("Debería cortar la lectura al superar el tamaño maximo y liberar el buffer")
+    void deberiaCortarAlSuperarElMaximo() throws IOException {
+        byte[] body = POKEMON.getBytes(StandardCharsets.UTF_8);
+        JsonBodyReader reader = new JsonBodyReader(Set.of("name"), body.length - 1);
+        NettyDataBuffer buffer = bufferFactory.wrap(body);
+
+        Assertions.assertThrows(DataBufferLimitException.class, () -> reader.feed(buffer));
+        Assertions.assertEquals(0, buffer.getNativeBuffer().refCnt());
+    }
+}
@@ -0,0 +1,125 @@
+package com.pokemon.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class PokeJsonExtractorTest {
+
+    private static InputStream json(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Debería extraer solo los campos usados del pokemon, salteando el resto")
+    void deberiaExtraerPokemon() throws IOException {
+        String body = """
+                {
+                  "abilities": [
+                    {"ability": {"name": "static", "url": "https://pokeapi.co/api/v2/ability/9/"}, "is_hidden": false, "slot": 1},
+                    {"is_hidden": true, "slot": 3}
+                  ],
+                  "moves": [{"move": {"name": "mega-punch", "url": "https://pokeapi.co/api/v2/move/5/"}, "version_group_details": [{"level_learned_at": 0}]}],
+                  "name": "pikachu",
+                  "sprites": {
+                    "back_default": "back.png",
+                    "front_default": "front.png",
+                    "other": {
+                      "home": {"front_default": "home.png"},
+                      "dream_world": {"front_default": "dream.svg", "front_female": null}
+                    },
+                    "versions": {"generation-i": {"red-blue": {"front_default": "gen1.png"}}}
+                  },
+                  "species": {"name": "pikachu", "url": "https://pokeapi.co/api/v2/pokemon-species/25/"},
+                  "types": [{"slot": 1, "type": {"name": "electric", "url": "https://pokeapi.co/api/v2/type/13/"}}],
+                  "height": 4,
+                  "weight": 60
+                }
+                """;
+
+        PokeJsonExtractor.PokemonPayload payload = PokeJsonExtractor.extractPokemon(json(body));
+
+        Assertions.assertEquals("pikachu", payload.name());
+        Assertions.assertEquals(60, payload.weight());
+        Assertions.assertEquals(4, payload.height());
+        Assertions.assertEquals("front.png", payload.imageList());
+        Assertions.assertEquals("dream.svg", payload.imageDetail());
+        Assertions.assertEquals(List.of("https://pokeapi.co/api/v2/type/13/"), payload.typeUrls());
+        Assertions.assertEquals(Arrays.asList("https://pokeapi.co/api/v2/ability/9/", null), payload.abilityUrls());
+        Assertions.assertEquals("https://pokeapi.co/api/v2/pokemon-species/25/", payload.speciesUrl());
+    }
+
+    @Test
+    @DisplayName("Debería armar la tabla con el primer texto no vacio de cada idioma")
+    void deberiaExtraerTraducciones() throws IOException {
+        String body = """
+                {
+                  "id": 9,
+                  "flavor_text_entries": [
+                    {"flavor_text": "Paralyzes on contact.", "language": {"name": "en"}},
+                    {"language": {"name": "es"}, "flavor_text": ""},
+                    {"language": {"name": "es"}, "flavor_text": "Puede paralizar al contacto."},
+                    {"language": {"name": "es"}, "flavor_text": "Otro texto."}
+                  ]
+                }
+                """;
+
+        Assertions.assertEquals(Map.of("en", "Paralyzes on contact.", "es", "Puede paralizar al contacto."),
+                PokeJsonExtractor.extractTranslations(json(body), "flavor_text_entries", "flavor_text"));
+    }
+
+    @Test
+    @DisplayName("Debería extraer la url de la cadena evolutiva y los textos de la especie")
+    void deberiaExtraerEspecie() throws IOException {
+        String body = """
+                {
+                  "color": {"name": "yellow"},
+                  "evolution_chain": {"url": "https://pokeapi.co/api/v2/evolution-chain/10/"},
+                  "flavor_text_entries": [
+                    {"flavor_text": "When several of these POKéMON gather...", "language": {"name": "en"}},
+                    {"flavor_text": "Cuando se juntan varios...", "language": {"name": "es"}}
+                  ]
+                }
+                """;
+
+        PokeJsonExtractor.SpeciePayload specie = PokeJsonExtractor.extractSpecie(json(body));
+
+        Assertions.assertEquals("https://pokeapi.co/api/v2/evolution-chain/10/", specie.evolutionChainUrl());
+        Assertions.assertEquals("Cuando se juntan varios...", specie.flavorTexts().get("es"));
+        Assertions.assertEquals(2, specie.flavorTexts().size());
+    }
+
+    @Test
+    @DisplayName("Debería extraer las etapas de la cadena evolutiva por niveles")
+    void deberiaExtraerEtapasDeLaCadena() throws IOException {
+        String body = """
+                {
+                  "baby_trigger_item": null,
+                  "chain": {
+                    "evolution_details": [],
+                    "species": {"name": "pichu", "url": "https://pokeapi.co/api/v2/pokemon-species/172/"},
+                    "evolves_to": [{
+                      "evolution_details": [{"min_happiness": 220}],
+                      "species": {"name": "pikachu", "url": "https://pokeapi.co/api/v2/pokemon-species/25/"},
+                      "evolves_to": [
+                        {"species": {"name": "raichu", "url": "https://pokeapi.co/api/v2/pokemon-species/26/"}, "evolves_to": []},
+                        {"species": {"name": "raichu-alola", "url": "https://pokeapi.co/api/v2/pokemon-species/10100/"}, "evolves_to": []}
+                      ]
+                    }]
+                  },
+                  "id": 10
+                }
+                """;
+
+        Assertions.assertEquals(List.of(List.of(172), List.of(25), List.of(26, 10100)),
+                PokeJsonExtractor.extractEvolutionStages(json(body)));
+    }
+}